@@ -0,0 +1,34 @@
+package com.ecommerce.dashboard.config;
+
+import com.ecommerce.dashboard.monitoring.RepositoryCallInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+@Configuration
+public class FlightRecorderConfig {
+
+    /**
+     * Adds a RepositoryCall event around the methods of every blocking Spring Data
+     * repository. Reactive ones only assemble their query when called, so they are left out.
+     */
+    @Bean
+    static BeanPostProcessor repositoryCallEvents() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, repository) -> {
+                            if (!repository.isReactiveRepository()) {
+                                proxyFactory.addAdvice(new RepositoryCallInterceptor(
+                                    repository.getRepositoryInterface().getSimpleName()));
+                            }
+                        }));
+                }
+                return bean;
+            }
+        };
+    }
+}
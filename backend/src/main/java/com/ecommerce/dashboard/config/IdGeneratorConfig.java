@@ -0,0 +1,49 @@
+package com.ecommerce.dashboard.config;
+
+import com.ecommerce.dashboard.util.SnowflakeIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.cloud.CloudPlatform;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorConfig.class);
+
+    // StatefulSet pod names end in the pod's ordinal, e.g. dashboard-backend-2
+    private static final Pattern POD_ORDINAL = Pattern.compile(".*-(\\d+)");
+
+    /**
+     * Every instance writing sales needs its own node id. Without sales.id.node-id, a
+     * StatefulSet pod uses its ordinal, and other pods fail to start since their replicas
+     * would share one. Outside Kubernetes the node id is 0, which only a single instance
+     * may use.
+     */
+    @Bean
+    public SnowflakeIdGenerator saleIdGenerator(@Value("${sales.id.node-id}") String nodeId,
+                                                @Value("${HOSTNAME:}") String hostname,
+                                                Environment environment) {
+        if (!nodeId.isBlank()) {
+            return new SnowflakeIdGenerator(Integer.parseInt(nodeId.trim()));
+        }
+        if (CloudPlatform.getActive(environment) != CloudPlatform.KUBERNETES) {
+            logger.warn("sales.id.node-id is not set, using node 0; sale ids collide if another instance does the same");
+            return new SnowflakeIdGenerator(0);
+        }
+
+        Matcher ordinal = POD_ORDINAL.matcher(hostname);
+        if (!ordinal.matches() || Integer.parseInt(ordinal.group(1)) > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalStateException("Pod " + hostname + " has no node id of its own; set sales.id.node-id"
+                + " or run at most " + (SnowflakeIdGenerator.MAX_NODE_ID + 1) + " StatefulSet pods");
+        }
+        int derived = Integer.parseInt(ordinal.group(1));
+        logger.info("Sale id node {} taken from pod {}", derived, hostname);
+        return new SnowflakeIdGenerator(derived);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.dashboard.config;
+
+import com.ecommerce.dashboard.service.DashboardSnapshotService;
+import com.ecommerce.dashboard.service.DictionaryService;
+import com.ecommerce.dashboard.service.MoneyMigration;
+import com.ecommerce.dashboard.service.RefreshTokenService;
+import com.ecommerce.dashboard.service.SearchService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * Beans that stay eager under {@code spring.main.lazy-initialization}: the schema
+     * migrations, which must finish before the first request, and beans with
+     * {@code @Scheduled} methods, which are only scheduled once the bean exists.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter startupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+            MoneyMigration.class,
+            DictionaryService.class,
+            SearchService.class,
+            DashboardSnapshotService.class,
+            RefreshTokenService.class
+        );
+    }
+}
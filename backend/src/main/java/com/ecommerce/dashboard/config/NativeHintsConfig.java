@@ -0,0 +1,110 @@
+package com.ecommerce.dashboard.config;
+
+import com.ecommerce.dashboard.entity.Category;
+import com.ecommerce.dashboard.entity.CategoryConverter;
+import com.ecommerce.dashboard.entity.CustomerSketch;
+import com.ecommerce.dashboard.entity.DictionaryEntry;
+import com.ecommerce.dashboard.entity.DictionaryListener;
+import com.ecommerce.dashboard.entity.PaymentMethod;
+import com.ecommerce.dashboard.entity.PaymentMethodConverter;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.ProductRow;
+import com.ecommerce.dashboard.entity.RefreshToken;
+import com.ecommerce.dashboard.entity.Region;
+import com.ecommerce.dashboard.entity.RegionConverter;
+import com.ecommerce.dashboard.entity.Role;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.entity.SaleIdListener;
+import com.ecommerce.dashboard.entity.SaleRow;
+import com.ecommerce.dashboard.entity.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+import java.util.List;
+
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.DashboardRuntimeHints.class)
+public class NativeHintsConfig {
+
+    /**
+     * What a native image cannot discover on its own. Spring's AOT processing covers beans,
+     * repositories and typed controller signatures. Hibernate still reads entities and
+     * creates converters and listeners reflectively, jjwt loads its implementation by class
+     * name, and most responses are serialized from untyped or pre-rendered bodies.
+     */
+    static class DashboardRuntimeHints implements RuntimeHintsRegistrar {
+
+        // JPA entities, and the R2DBC rows of the reactive read endpoints
+        private static final List<Class<?>> ENTITIES = List.of(
+            Sale.class, Product.class, User.class, Role.class, RefreshToken.class, CustomerSketch.class,
+            DictionaryEntry.class, Category.class, Region.class, PaymentMethod.class,
+            SaleRow.class, ProductRow.class);
+
+        private static final List<Class<?>> ENTITY_CALLBACKS = List.of(
+            SaleIdListener.class, DictionaryListener.class,
+            CategoryConverter.class, RegionConverter.class, PaymentMethodConverter.class);
+
+        // Named in jjwt-api and instantiated through io.jsonwebtoken.lang.Classes
+        private static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            // Found through META-INF/services by io.jsonwebtoken.impl.lang.Services
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        );
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            ENTITIES.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS));
+            ENTITY_CALLBACKS.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+
+            JJWT_IMPLEMENTATIONS.forEach(name -> hints.reflection().registerTypeIfPresent(classLoader, name,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            // Coalesced listings are rendered to bytes and several endpoints return ResponseEntity<?>
+            BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+            scanner.addIncludeFilter((reader, factory) -> !reader.getClassMetadata().isInterface());
+            for (BeanDefinition dto : scanner.findCandidateComponents("com.ecommerce.dashboard.dto")) {
+                bindings.registerReflectionHints(hints.reflection(),
+                    ClassUtils.resolveClassName(dto.getBeanClassName(), classLoader));
+            }
+
+            // Caffeine's JCache configuration for the second-level cache regions
+            hints.resources().registerPattern("application.conf");
+        }
+    }
+}
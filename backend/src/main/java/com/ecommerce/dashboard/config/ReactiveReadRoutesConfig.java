@@ -0,0 +1,28 @@
+package com.ecommerce.dashboard.config;
+
+import com.ecommerce.dashboard.controller.ReactiveReadHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import static org.springframework.web.servlet.function.RouterFunctions.route;
+
+/**
+ * Non-blocking read endpoints backed by R2DBC, next to the JPA ones. The application
+ * stays on the servlet stack, so these are Spring MVC functional routes with reactive
+ * bodies. Access rules are in {@link SecurityConfig}.
+ */
+@Configuration
+public class ReactiveReadRoutesConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveReadRoutes(ReactiveReadHandler handler) {
+        return route()
+            .GET("/api/reactive/products", handler::getProducts)
+            .GET("/api/reactive/sales", handler::getSales)
+            .GET("/api/reactive/sales/export", handler::exportSales)
+            .GET("/api/reactive/sales/analytics/summary", handler::getSummary)
+            .build();
+    }
+}
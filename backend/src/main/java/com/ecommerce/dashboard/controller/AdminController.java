@@ -0,0 +1,102 @@
+package com.ecommerce.dashboard.controller;
+
+import com.ecommerce.dashboard.dto.CacheRegionStatsDTO;
+import com.ecommerce.dashboard.dto.MessageResponse;
+import com.ecommerce.dashboard.service.CacheStatsService;
+import com.ecommerce.dashboard.service.FlightRecorderService;
+import com.ecommerce.dashboard.service.SearchService;
+import jdk.jfr.RecordingState;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getCacheStats() {
+        List<CacheRegionStatsDTO> stats = cacheStatsService.getSecondLevelCacheStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildSearchIndex() {
+        if (!searchService.rebuildInBackground()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Search index rebuild already running"));
+        }
+        return ResponseEntity.accepted().body(new MessageResponse("Search index rebuild started"));
+    }
+
+    /**
+     * Starts a time-boxed flight recording; download it from GET /jfr/recording once it stops.
+     */
+    @PostMapping("/jfr/recording")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> startRecording(@RequestParam(defaultValue = "60") long durationSeconds)
+            throws IOException, ParseException {
+        if (durationSeconds < 1 || durationSeconds > flightRecorderService.getMaxDurationSeconds()) {
+            return ResponseEntity.badRequest().body(new MessageResponse(
+                    "Error: durationSeconds must be between 1 and " + flightRecorderService.getMaxDurationSeconds()));
+        }
+        if (!flightRecorderService.startRecording(Duration.ofSeconds(durationSeconds))) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: A recording is already running"));
+        }
+        return ResponseEntity.accepted().body(new MessageResponse("Recording started for " + durationSeconds + " seconds"));
+    }
+
+    @GetMapping("/jfr/recording")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> downloadRecording() throws IOException {
+        RecordingState state = flightRecorderService.getRecordingState();
+        if (state == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Error: No recording has been started"));
+        }
+        if (state != RecordingState.STOPPED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: The recording is still running"));
+        }
+        return recordingFile(flightRecorderService.dumpRecording(), "dashboard-recording.jfr");
+    }
+
+    @GetMapping("/jfr/continuous")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> downloadContinuousRecording() throws IOException {
+        Path file = flightRecorderService.dumpContinuousRecording();
+        if (file == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Error: Continuous recording is disabled"));
+        }
+        return recordingFile(file, "dashboard-continuous.jfr");
+    }
+
+    // The dump is deleted once the response has been copied from it
+    private ResponseEntity<InputStreamResource> recordingFile(Path file, String fileName) throws IOException {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .body(new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
+    }
+}
@@ -4,25 +4,29 @@ import com.ecommerce.dashboard.dto.JwtResponse;
 import com.ecommerce.dashboard.dto.LoginRequest;
 import com.ecommerce.dashboard.dto.MessageResponse;
 import com.ecommerce.dashboard.dto.SignupRequest;
+import com.ecommerce.dashboard.dto.TokenRefreshRequest;
 import com.ecommerce.dashboard.entity.Role;
 import com.ecommerce.dashboard.entity.User;
 import com.ecommerce.dashboard.repository.RoleRepository;
 import com.ecommerce.dashboard.repository.UserRepository;
-import com.ecommerce.dashboard.security.JwtUtils;
+import com.ecommerce.dashboard.security.PasswordHashingExecutor;
+import com.ecommerce.dashboard.security.TokenRefreshException;
 import com.ecommerce.dashboard.security.UserDetailsImpl;
+import com.ecommerce.dashboard.service.RefreshTokenService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -41,30 +45,54 @@ public class AuthController {
     private PasswordEncoder encoder;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
 
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        try {
+            return passwordHashingExecutor.submit(() -> signIn(loginRequest));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingSaturated());
+        }
+    }
+
+    @PostMapping("/signup")
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+        try {
+            return passwordHashingExecutor.submit(() -> signUp(signUpRequest));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingSaturated());
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody TokenRefreshRequest request) {
+        try {
+            JwtResponse tokens = refreshTokenService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(tokens);
+        } catch (TokenRefreshException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/signout")
+    public ResponseEntity<?> signOut(@Valid @RequestBody TokenRefreshRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return ResponseEntity.ok(new MessageResponse("Signed out successfully!"));
+    }
+
+    private ResponseEntity<?> signIn(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
-
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        List<String> roles = userDetails.getAuthorities().stream()
-                .map(item -> item.getAuthority())
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(new JwtResponse(jwt,
-                userDetails.getId(),
-                userDetails.getUsername(),
-                userDetails.getEmail(),
-                roles));
+        return ResponseEntity.ok(refreshTokenService.issueTokens(userDetails));
     }
 
-    @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+    private ResponseEntity<?> signUp(SignupRequest signUpRequest) {
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: Username is already taken!"));
         }
@@ -105,4 +133,10 @@ public class AuthController {
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
+
+    private ResponseEntity<?> hashingSaturated() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponse("Error: Too many sign-in requests, please retry shortly"));
+    }
 }
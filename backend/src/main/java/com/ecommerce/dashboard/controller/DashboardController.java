@@ -0,0 +1,23 @@
+package com.ecommerce.dashboard.controller;
+
+import com.ecommerce.dashboard.dto.DashboardSummaryDTO;
+import com.ecommerce.dashboard.service.DashboardSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @GetMapping("/summary")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<DashboardSummaryDTO> getSummary(@RequestParam(defaultValue = "30d") String window) {
+        DashboardSummaryDTO summary = dashboardSnapshotService.getSummary(window);
+        return ResponseEntity.ok(summary);
+    }
+}
@@ -2,15 +2,19 @@ package com.ecommerce.dashboard.controller;
 
 import com.ecommerce.dashboard.dto.CreateProductRequest;
 import com.ecommerce.dashboard.dto.MessageResponse;
+import com.ecommerce.dashboard.dto.PatchProductRequest;
 import com.ecommerce.dashboard.dto.ProductDTO;
+import com.ecommerce.dashboard.dto.VersionConflictResponse;
 import com.ecommerce.dashboard.service.ProductService;
+import com.ecommerce.dashboard.service.ResponseCoalescingService;
+import com.ecommerce.dashboard.service.VersionConflictException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
@@ -19,11 +23,14 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ResponseCoalescingService responseCoalescingService;
+
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllProducts() {
+        byte[] products = responseCoalescingService.toJson("products", productService::getAllProducts);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(products);
     }
 
     @GetMapping("/{id}")
@@ -47,6 +54,25 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    /**
+     * Changes only the fields present; 409 with the current version when the product has
+     * changed since the version in the request.
+     */
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> patchProduct(@PathVariable Long id, @Valid @RequestBody PatchProductRequest request) {
+        if (!request.hasChanges()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: No fields to update"));
+        }
+        try {
+            ProductDTO updatedProduct = productService.patchProduct(id, request);
+            return ResponseEntity.ok(updatedProduct);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new VersionConflictResponse("Error: " + e.getMessage(), e.getCurrentVersion()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<MessageResponse> deleteProduct(@PathVariable Long id) {
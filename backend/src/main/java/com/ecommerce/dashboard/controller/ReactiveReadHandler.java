@@ -0,0 +1,148 @@
+package com.ecommerce.dashboard.controller;
+
+import com.ecommerce.dashboard.dto.MessageResponse;
+import com.ecommerce.dashboard.dto.SaleDTO;
+import com.ecommerce.dashboard.dto.SaleFilter;
+import com.ecommerce.dashboard.service.ReactiveSaleService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Handlers for the reactive read routes in {@code ReactiveReadRoutesConfig}. They take
+ * the same parameters as the matching {@link SaleController} and {@link ProductController}
+ * endpoints. The servlet thread is released as soon as a handler returns, and the response
+ * is written as the database emits.
+ */
+@Component
+public class ReactiveReadHandler {
+
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    // Properties of SaleRow, which are columns of the sales table
+    private static final Set<String> SORT_PROPERTIES = Set.of(
+        "id", "saleDate", "totalAmountMinor", "quantity", "customerName");
+
+    @Autowired
+    private ReactiveSaleService reactiveSaleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${sales.page.max-size}")
+    private int maxPageSize;
+
+    @Value("${reactive.export.prefetch}")
+    private int exportPrefetch;
+
+    public ServerResponse getProducts(ServerRequest request) {
+        return ServerResponse.ok().body(reactiveSaleService.getAllProducts().collectList());
+    }
+
+    public ServerResponse getSales(ServerRequest request) {
+        SaleFilter filter;
+        try {
+            filter = new SaleFilter(
+                dateParam(request, "startDate"),
+                dateParam(request, "endDate"),
+                request.param("region").orElse(null),
+                request.param("paymentMethod").orElse(null),
+                request.param("productId").map(Long::valueOf).orElse(null),
+                request.param("category").orElse(null),
+                request.param("customerName").orElse(null),
+                request.param("minAmount").map(Double::valueOf).orElse(null),
+                request.param("maxAmount").map(Double::valueOf).orElse(null)
+            );
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return ServerResponse.badRequest().body(new MessageResponse("Error: Invalid filter parameter"));
+        }
+
+        int page;
+        int size;
+        try {
+            page = request.param("page").map(Integer::parseInt).orElse(0);
+            size = request.param("size").map(Integer::parseInt).orElse(10);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().body(new MessageResponse("Error: Invalid page or size"));
+        }
+        if (page < 0 || size < 1) {
+            return ServerResponse.badRequest().body(new MessageResponse("Error: page must be at least 0 and size at least 1"));
+        }
+        String sortBy = request.param("sortBy").orElse("saleDate");
+        if (!SORT_PROPERTIES.contains(sortBy)) {
+            return ServerResponse.badRequest().body(new MessageResponse("Error: Sales cannot be sorted by: " + sortBy));
+        }
+        String sortDir = request.param("sortDir").orElse("DESC");
+        Sort sort = sortDir.equalsIgnoreCase("ASC") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+
+        return ServerResponse.ok().body(reactiveSaleService.getSales(filter, PageRequest.of(page, Math.min(size, maxPageSize), sort)));
+    }
+
+    /**
+     * One JSON sale per line. Rows are serialized and written on a worker thread, and at
+     * most {@code reactive.export.prefetch} rows wait between the database and the socket.
+     */
+    public ServerResponse exportSales(ServerRequest request) {
+        LocalDateTime startDate;
+        LocalDateTime endDate;
+        try {
+            startDate = dateParam(request, "startDate");
+            endDate = dateParam(request, "endDate");
+        } catch (DateTimeParseException e) {
+            return ServerResponse.badRequest().body(new MessageResponse("Error: Invalid date"));
+        }
+
+        Flux<String> lines = reactiveSaleService.exportSales(startDate, endDate)
+            .publishOn(Schedulers.boundedElastic(), exportPrefetch)
+            .map(this::toJsonLine);
+        return ServerResponse.ok()
+            .contentType(NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("sales_export.ndjson").build().toString())
+            .body(lines);
+    }
+
+    public ServerResponse getSummary(ServerRequest request) {
+        LocalDateTime startDate;
+        LocalDateTime endDate;
+        try {
+            startDate = dateParam(request, "startDate");
+            endDate = dateParam(request, "endDate");
+        } catch (DateTimeParseException e) {
+            return ServerResponse.badRequest().body(new MessageResponse("Error: Invalid date"));
+        }
+        if (startDate == null || endDate == null || !startDate.isBefore(endDate)) {
+            return ServerResponse.badRequest().body(new MessageResponse("Error: startDate must be before endDate"));
+        }
+
+        return ServerResponse.ok().body(reactiveSaleService.getSummary(startDate, endDate));
+    }
+
+    private LocalDateTime dateParam(ServerRequest request, String name) {
+        Optional<String> value = request.param(name);
+        return value.map(LocalDateTime::parse).orElse(null);
+    }
+
+    private String toJsonLine(SaleDTO sale) {
+        try {
+            return objectMapper.writeValueAsString(sale) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to export sale with id: " + sale.getId(), e);
+        }
+    }
+}
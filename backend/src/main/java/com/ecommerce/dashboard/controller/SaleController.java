@@ -1,12 +1,29 @@
 package com.ecommerce.dashboard.controller;
 
+import com.ecommerce.dashboard.dto.BulkOperationResultDTO;
+import com.ecommerce.dashboard.dto.BulkSaleRequest;
 import com.ecommerce.dashboard.dto.CreateSaleRequest;
 import com.ecommerce.dashboard.dto.MessageResponse;
+import com.ecommerce.dashboard.dto.PatchSaleRequest;
+import com.ecommerce.dashboard.dto.PendingSaleDTO;
+import com.ecommerce.dashboard.dto.PeriodComparisonDTO;
 import com.ecommerce.dashboard.dto.SaleDTO;
+import com.ecommerce.dashboard.dto.SaleFilter;
+import com.ecommerce.dashboard.dto.TimeSeriesDTO;
+import com.ecommerce.dashboard.dto.UniqueCustomersDTO;
+import com.ecommerce.dashboard.dto.VersionConflictResponse;
+import com.ecommerce.dashboard.service.CustomerSketchService;
+import com.ecommerce.dashboard.service.IdempotencyKeyConflictException;
+import com.ecommerce.dashboard.service.ResponseCoalescingService;
+import com.ecommerce.dashboard.service.SaleBulkService;
 import com.ecommerce.dashboard.service.SaleService;
+import com.ecommerce.dashboard.service.SalesComparisonService;
+import com.ecommerce.dashboard.service.SalesTimeSeriesService;
+import com.ecommerce.dashboard.service.VersionConflictException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -17,30 +34,76 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/sales")
 public class SaleController {
 
+    private static final Pattern IDEMPOTENCY_KEY_PATTERN = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+
     @Autowired
     private SaleService saleService;
 
+    @Autowired
+    private SaleBulkService saleBulkService;
+
+    @Autowired
+    private CustomerSketchService customerSketchService;
+
+    @Autowired
+    private SalesTimeSeriesService salesTimeSeriesService;
+
+    @Autowired
+    private SalesComparisonService salesComparisonService;
+
+    @Autowired
+    private ResponseCoalescingService responseCoalescingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${sales.page.max-size}")
+    private int maxPageSize;
+
+    /**
+     * Identical concurrent requests share one query and its JSON.
+     */
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<SaleDTO>> getSales(
+    public ResponseEntity<?> getSales(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) String paymentMethod,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "saleDate") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDir
     ) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: page must be at least 0 and size at least 1"));
+        }
         Sort sort = sortDir.equalsIgnoreCase("ASC") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = PageRequest.of(page, Math.min(size, maxPageSize), sort);
 
-        Page<SaleDTO> sales = saleService.getSales(startDate, endDate, pageable);
-        return ResponseEntity.ok(sales);
+        SaleFilter filter = new SaleFilter(startDate, endDate, region, paymentMethod, productId, category,
+                customerName, minAmount, maxAmount);
+        byte[] sales = responseCoalescingService.toJson(List.of("sales", filter, pageable),
+                () -> saleService.getSales(filter, pageable));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(sales);
     }
 
     @GetMapping("/{id}")
@@ -52,8 +115,47 @@ public class SaleController {
 
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<SaleDTO> createSale(@Valid @RequestBody CreateSaleRequest request) {
-        SaleDTO createdSale = saleService.createSale(request);
+    public ResponseEntity<?> createSale(
+            @Valid @RequestBody CreateSaleRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        if (idempotencyKey != null) {
+            if (!IDEMPOTENCY_KEY_PATTERN.matcher(idempotencyKey).matches()) {
+                return ResponseEntity.badRequest()
+                        .body(new MessageResponse("Error: Idempotency-Key must be 1-64 letters, digits, '.', '_', ':' or '-'"));
+            }
+
+            Optional<SaleDTO> existingSale = saleService.findByIdempotencyKey(idempotencyKey);
+            if (existingSale.isPresent()) {
+                if (!saleService.matchesRequest(existingSale.get(), request)) {
+                    return ResponseEntity.unprocessableEntity()
+                            .body(new MessageResponse("Error: Idempotency-Key was already used with a different request"));
+                }
+                return ResponseEntity.ok()
+                        .header("Idempotent-Replayed", "true")
+                        .body(existingSale.get());
+            }
+        }
+
+        if (saleService.isWriteBehindEnabled()) {
+            PendingSaleDTO pendingSale;
+            try {
+                pendingSale = saleService.enqueueSale(request, idempotencyKey);
+            } catch (IdempotencyKeyConflictException e) {
+                return ResponseEntity.unprocessableEntity().body(new MessageResponse("Error: " + e.getMessage()));
+            }
+            if (pendingSale != null) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(pendingSale);
+            }
+            // Queue is full, fall back to a synchronous insert
+        }
+
+        SaleDTO createdSale;
+        try {
+            createdSale = saleService.createSale(request, idempotencyKey);
+        } catch (IdempotencyKeyConflictException e) {
+            return ResponseEntity.unprocessableEntity().body(new MessageResponse("Error: " + e.getMessage()));
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(createdSale);
     }
 
@@ -64,6 +166,25 @@ public class SaleController {
         return ResponseEntity.ok(updatedSale);
     }
 
+    /**
+     * Changes only the fields present; 409 with the current version when the sale has
+     * changed since the version in the request.
+     */
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> patchSale(@PathVariable Long id, @Valid @RequestBody PatchSaleRequest request) {
+        if (!request.hasChanges()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: No fields to update"));
+        }
+        try {
+            SaleDTO updatedSale = saleService.patchSale(id, request);
+            return ResponseEntity.ok(updatedSale);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new VersionConflictResponse("Error: " + e.getMessage(), e.getCurrentVersion()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<MessageResponse> deleteSale(@PathVariable Long id) {
@@ -71,15 +192,84 @@ public class SaleController {
         return ResponseEntity.ok(new MessageResponse("Sale deleted successfully"));
     }
 
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkDeleteSales(@RequestBody BulkSaleRequest request) {
+        String error = validateSelection(request);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(new MessageResponse(error));
+        }
+        BulkOperationResultDTO result = saleBulkService.delete(request);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/bulk-update")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkUpdateSales(@RequestBody BulkSaleRequest request) {
+        String error = validateSelection(request);
+        if (error == null && !request.hasTarget()) {
+            error = "Error: Nothing to update";
+        }
+        if (error == null && request.getAmountFactor() != null && !(request.getAmountFactor() > 0)) {
+            error = "Error: Amount factor must be positive";
+        }
+        if (error != null) {
+            return ResponseEntity.badRequest().body(new MessageResponse(error));
+        }
+        BulkOperationResultDTO result = saleBulkService.update(request);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/export")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> exportSales(
+    public ResponseEntity<StreamingResponseBody> exportSales(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean parallel,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "csv") String format
     ) {
-        String csv = saleService.exportSalesToCSV(startDate, endDate);
-
         HttpHeaders headers = new HttpHeaders();
+
+        // Columnar files are compressed per page and always read in date order
+        if (format.equalsIgnoreCase("parquet") || format.equalsIgnoreCase("arrow")) {
+            if (gzip) {
+                return exportError("Error: gzip only applies to CSV exports");
+            }
+            StreamingResponseBody body;
+            if (format.equalsIgnoreCase("parquet")) {
+                headers.setContentType(MediaType.parseMediaType("application/vnd.apache.parquet"));
+                headers.setContentDispositionFormData("attachment", "sales_export.parquet");
+                body = out -> saleService.exportSalesToParquet(startDate, endDate, out);
+            } else {
+                headers.setContentType(MediaType.parseMediaType("application/vnd.apache.arrow.stream"));
+                headers.setContentDispositionFormData("attachment", "sales_export.arrows");
+                body = out -> saleService.exportSalesToArrow(startDate, endDate, out);
+            }
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(body);
+        }
+        if (!format.equalsIgnoreCase("csv")) {
+            return exportError("Error: Unsupported export format: " + format);
+        }
+
+        if (parallel) {
+            if (gzip) {
+                headers.setContentType(MediaType.parseMediaType("application/gzip"));
+                headers.setContentDispositionFormData("attachment", "sales_export.csv.gz");
+            } else {
+                headers.setContentType(MediaType.parseMediaType("text/csv"));
+                headers.setContentDispositionFormData("attachment", "sales_export.csv");
+            }
+            StreamingResponseBody body = out -> saleService.exportSalesToCSVParallel(startDate, endDate, gzip, out);
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(body);
+        }
+
+        StreamingResponseBody csv = out -> saleService.exportSalesToCSV(startDate, endDate, out);
+
         headers.setContentType(MediaType.parseMediaType("text/csv"));
         headers.setContentDispositionFormData("attachment", "sales_export.csv");
 
@@ -87,4 +277,79 @@ public class SaleController {
                 .headers(headers)
                 .body(csv);
     }
+
+    @GetMapping("/analytics/unique-customers")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<UniqueCustomersDTO> getUniqueCustomers(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) Long productId
+    ) {
+        UniqueCustomersDTO uniqueCustomers = customerSketchService.estimateUniqueCustomers(startDate, endDate, region, productId);
+        return ResponseEntity.ok(uniqueCustomers);
+    }
+
+    /**
+     * Metrics for a period against the previous period of the same length, or the one
+     * starting at previousStartDate, e.g. a year earlier.
+     */
+    @GetMapping("/analytics/compare")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> comparePeriods(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime previousStartDate,
+            @RequestParam(defaultValue = "category") String groupBy
+    ) {
+        if (!startDate.isBefore(endDate)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: startDate must be before endDate"));
+        }
+        if (previousStartDate != null && previousStartDate.plus(Duration.between(startDate, endDate)).isAfter(startDate)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: The previous period must end by startDate"));
+        }
+        if (!SalesComparisonService.GROUPS.contains(groupBy)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: groupBy must be category, region or product"));
+        }
+        PeriodComparisonDTO comparison = salesComparisonService.comparePeriods(startDate, endDate, previousStartDate, groupBy);
+        return ResponseEntity.ok(comparison);
+    }
+
+    /**
+     * Revenue and order counts per bucket; at most maxPoints points for any range.
+     */
+    @GetMapping("/timeseries")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getTimeSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "500") int maxPoints,
+            @RequestParam(defaultValue = "false") boolean downsample
+    ) {
+        if (!startDate.isBefore(endDate)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: startDate must be before endDate"));
+        }
+        TimeSeriesDTO timeSeries = salesTimeSeriesService.getTimeSeries(startDate, endDate, maxPoints, downsample);
+        return ResponseEntity.ok(timeSeries);
+    }
+
+    /**
+     * An empty filter would select every sale, so one of ids or filter is required.
+     */
+    private String validateSelection(BulkSaleRequest request) {
+        if (request.hasIds() == request.hasFilter()) {
+            return "Error: Specify either ids or a filter (startDate, endDate, productId, region)";
+        }
+        if (request.hasIds() && request.getIds().size() > saleBulkService.getMaxIds()) {
+            return "Error: At most " + saleBulkService.getMaxIds() + " ids per request";
+        }
+        return null;
+    }
+
+    // Streaming bodies are only handled when declared as such, so errors are streamed too
+    private ResponseEntity<StreamingResponseBody> exportError(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(objectMapper.writeValueAsBytes(new MessageResponse(message))));
+    }
 }
@@ -0,0 +1,35 @@
+package com.ecommerce.dashboard.controller;
+
+import com.ecommerce.dashboard.dto.MessageResponse;
+import com.ecommerce.dashboard.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final Set<String> TYPES = Set.of("sale", "product");
+
+    @Autowired
+    private SearchService searchService;
+
+    @Value("${search.max-results}")
+    private int maxResults;
+
+    @GetMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (type != null && !TYPES.contains(type)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: type must be 'sale' or 'product'"));
+        }
+        return ResponseEntity.ok(searchService.search(q, type, Math.max(1, Math.min(limit, maxResults))));
+    }
+}
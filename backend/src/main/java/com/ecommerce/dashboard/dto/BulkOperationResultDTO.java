@@ -0,0 +1,14 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResultDTO {
+    private long affected;
+    private int chunks;
+    private long elapsedMs;
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selects sales either by id or by filter, never both. The target fields are only
+ * used by bulk updates; null targets are left unchanged.
+ */
+@Data
+public class BulkSaleRequest {
+    private List<Long> ids;
+
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Long productId;
+    private String region;
+
+    private Long targetProductId;
+    private String targetRegion;
+    private String targetPaymentMethod;
+    private Double amountFactor;
+
+    private Integer chunkSize;
+
+    public boolean hasIds() {
+        return ids != null && !ids.isEmpty();
+    }
+
+    public boolean hasFilter() {
+        return startDate != null || endDate != null || productId != null || region != null;
+    }
+
+    public boolean hasTarget() {
+        return targetProductId != null || targetRegion != null || targetPaymentMethod != null || amountFactor != null;
+    }
+}
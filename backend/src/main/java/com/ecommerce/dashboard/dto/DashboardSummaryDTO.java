@@ -0,0 +1,26 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSummaryDTO {
+    private String window;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long totalSales;
+    private double totalRevenue;
+    private double averageOrderValue;
+    private Map<String, Double> revenueByCategory;
+    private Map<String, Double> revenueByRegion;
+    private List<DailySalesDTO> dailySales;
+    private long version;
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.dashboard.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * Fields to change on a product; see {@link PatchSaleRequest}.
+ */
+@Data
+public class PatchProductRequest {
+    @NotNull(message = "Version is required")
+    private Long version;
+
+    @Pattern(regexp = ".*\\S.*", message = "Product name must not be blank")
+    private String name;
+
+    @Pattern(regexp = ".*\\S.*", message = "Category must not be blank")
+    private String category;
+
+    @Positive(message = "Price must be positive")
+    private Double price;
+
+    public boolean hasChanges() {
+        return name != null || category != null || price != null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.dashboard.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Fields to change on a sale; null fields are left unchanged. The version is the one
+ * the client last read, and the update only applies while it is still current.
+ */
+@Data
+public class PatchSaleRequest {
+    @NotNull(message = "Version is required")
+    private Long version;
+
+    private Long productId;
+
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    @Positive(message = "Total amount must be positive")
+    private Double totalAmount;
+
+    private LocalDateTime saleDate;
+
+    @Pattern(regexp = ".*\\S.*", message = "Customer name must not be blank")
+    private String customerName;
+
+    @Pattern(regexp = ".*\\S.*", message = "Region must not be blank")
+    private String region;
+
+    @Pattern(regexp = ".*\\S.*", message = "Payment method must not be blank")
+    private String paymentMethod;
+
+    public boolean hasChanges() {
+        return productId != null || quantity != null || totalAmount != null || saleDate != null
+            || customerName != null || region != null || paymentMethod != null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingSaleDTO {
+    private Long provisionalId;
+    private String status;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodComparisonDTO {
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private LocalDateTime previousStartDate;
+    private LocalDateTime previousEndDate;
+    private String groupBy;
+    private PeriodComparisonRowDTO total;
+    private List<PeriodComparisonRowDTO> groups;
+}
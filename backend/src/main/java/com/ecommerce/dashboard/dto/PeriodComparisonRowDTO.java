@@ -0,0 +1,24 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Growth fields are percentages, null when the previous value is zero.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodComparisonRowDTO {
+    private String name;
+    private double revenue;
+    private double previousRevenue;
+    private Double revenueGrowth;
+    private long quantity;
+    private long previousQuantity;
+    private Double quantityGrowth;
+    private long orders;
+    private long previousOrders;
+    private Double ordersGrowth;
+}
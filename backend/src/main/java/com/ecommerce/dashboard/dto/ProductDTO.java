@@ -12,4 +12,5 @@ public class ProductDTO {
     private String name;
     private String category;
     private Double price;
+    private Long version;
 }
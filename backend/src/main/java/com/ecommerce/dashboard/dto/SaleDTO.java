@@ -14,9 +14,10 @@ public class SaleDTO {
     private String productName;
     private String productCategory;
     private Integer quantity;
-    private Double totalAmount;
+    private double totalAmount;
     private LocalDateTime saleDate;
     private String customerName;
     private String region;
     private String paymentMethod;
+    private Long version;
 }
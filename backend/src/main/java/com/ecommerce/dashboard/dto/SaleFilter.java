@@ -0,0 +1,24 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria for listing sales; null fields do not filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleFilter {
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String region;
+    private String paymentMethod;
+    private Long productId;
+    private String category;
+    private String customerNamePrefix;
+    private Double minAmount;
+    private Double maxAmount;
+}
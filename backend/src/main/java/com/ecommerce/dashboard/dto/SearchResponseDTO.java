@@ -0,0 +1,15 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponseDTO {
+    private String query;
+    private long totalHits;
+    private List<SearchResultDTO> results;
+}
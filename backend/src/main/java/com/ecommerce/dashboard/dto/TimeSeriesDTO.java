@@ -0,0 +1,18 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesDTO {
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String bucket;
+    private boolean downsampled;
+    private List<TimeSeriesPointDTO> points;
+}
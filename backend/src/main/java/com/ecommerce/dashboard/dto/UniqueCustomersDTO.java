@@ -0,0 +1,19 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniqueCustomersDTO {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String region;
+    private Long productId;
+    private long estimate;
+    private double relativeStandardError;
+    private int sketchesMerged;
+}
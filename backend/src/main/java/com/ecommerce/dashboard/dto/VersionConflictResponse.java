@@ -0,0 +1,11 @@
+package com.ecommerce.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class VersionConflictResponse {
+    private String message;
+    private Long currentVersion;
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Entity
+@Table(
+    name = "customer_sketches",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_customer_sketches_day_region_product",
+        columnNames = {"sketch_date", "region", "product_id"}
+    )
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sketch_date", nullable = false)
+    private LocalDate sketchDate;
+
+    @Column(nullable = false, length = 50)
+    private String region;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Lob
+    @Column(nullable = false, length = 65535)
+    private byte[] registers;
+}
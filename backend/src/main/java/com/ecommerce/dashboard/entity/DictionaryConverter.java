@@ -0,0 +1,33 @@
+package com.ecommerce.dashboard.entity;
+
+import com.ecommerce.dashboard.service.DictionaryService;
+import jakarta.persistence.AttributeConverter;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Stores a string attribute as its code in a reference table. Names must be registered
+ * before they are written, which {@link DictionaryListener} checks for every save. Hibernate
+ * creates converters while it builds the entity manager factory, before the repositories
+ * the dictionaries need exist, so the service is looked up on first use.
+ */
+public abstract class DictionaryConverter implements AttributeConverter<String, Short> {
+
+    private final ObjectProvider<DictionaryService> dictionaryService;
+
+    // Constructor injected for the reason given on DictionaryListener
+    protected DictionaryConverter(ObjectProvider<DictionaryService> dictionaryService) {
+        this.dictionaryService = dictionaryService;
+    }
+
+    protected abstract DictionaryService.Dictionary<?> dictionary(DictionaryService dictionaryService);
+
+    @Override
+    public Short convertToDatabaseColumn(String name) {
+        return name == null ? null : dictionary(dictionaryService.getObject()).codeOf(name);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return code == null ? null : dictionary(dictionaryService.getObject()).nameOf(code);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.dashboard.entity;
+
+import com.ecommerce.dashboard.service.DictionaryService;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Checks that the region, payment method and category names of a row are registered
+ * before it is written. Registering here would insert the name in a second transaction
+ * from inside the flush, holding two pooled connections at once, so writers register
+ * names through {@link DictionaryService} before their transaction starts.
+ */
+public class DictionaryListener {
+
+    private final ObjectProvider<DictionaryService> dictionaryService;
+
+    // Created by Hibernate through Spring's bean container. Under AOT only constructor
+    // arguments are autowired for beans that are not in the context.
+    public DictionaryListener(ObjectProvider<DictionaryService> dictionaryService) {
+        this.dictionaryService = dictionaryService;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void checkNames(Object entity) {
+        DictionaryService dictionaries = dictionaryService.getObject();
+        if (entity instanceof Sale sale) {
+            check(dictionaries.regions(), sale.getRegion());
+            check(dictionaries.paymentMethods(), sale.getPaymentMethod());
+        } else if (entity instanceof Product product) {
+            check(dictionaries.categories(), product.getCategory());
+        }
+    }
+
+    private void check(DictionaryService.Dictionary<?> dictionary, String name) {
+        if (!dictionary.isRegistered(name)) {
+            throw new IllegalStateException("Name was not registered before the write: " + name);
+        }
+    }
+}
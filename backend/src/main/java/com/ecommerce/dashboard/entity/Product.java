@@ -4,9 +4,15 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_category_id", columnList = "category_id"))
+@EntityListeners(DictionaryListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,8 +24,18 @@ public class Product {
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false)
+    // Nullable only so the column can be added to a populated table; see DictionaryMigration
+    @Column(name = "category_id")
+    @Convert(converter = CategoryConverter.class)
     private String category;
 
-    private Double price;
+    // Cents; see Money
+    @Column(name = "price_minor")
+    private Long priceMinor;
+
+    // Optimistic lock; see Sale
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
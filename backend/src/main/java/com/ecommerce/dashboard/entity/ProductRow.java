@@ -0,0 +1,30 @@
+package com.ecommerce.dashboard.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Read-only R2DBC mapping of the products table; see {@link SaleRow}.
+ */
+@Table("products")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRow {
+    @Id
+    private Long id;
+
+    private String name;
+
+    @Column("category_id")
+    private Short categoryId;
+
+    @Column("price_minor")
+    private Long priceMinor;
+
+    private Long version;
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token, stored as the SHA-256 of the opaque value handed to the client.
+ * Every token rotated from the same sign-in shares a family id, so presenting a
+ * token that was already rotated revokes the whole family.
+ */
+@Entity
+@Table(
+    name = "refresh_tokens",
+    uniqueConstraints = @UniqueConstraint(name = "uk_refresh_tokens_hash", columnNames = "token_hash"),
+    indexes = @Index(name = "idx_refresh_tokens_family", columnList = "family_id")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "access_token_id", length = 36)
+    private String accessTokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.dashboard.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Entity
+@Table(name = "regions")
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class Region extends DictionaryEntry {
+    public Region(String name) {
+        super(null, name);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.dashboard.entity;
+
+import com.ecommerce.dashboard.service.DictionaryService;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+@Converter
+public class RegionConverter extends DictionaryConverter {
+
+    public RegionConverter(ObjectProvider<DictionaryService> dictionaryService) {
+        super(dictionaryService);
+    }
+
+    @Override
+    protected DictionaryService.Dictionary<?> dictionary(DictionaryService dictionaryService) {
+        return dictionaryService.regions();
+    }
+}
@@ -4,16 +4,29 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales")
+@Table(
+    name = "sales",
+    uniqueConstraints = @UniqueConstraint(name = "uk_sales_idempotency_key", columnNames = "idempotency_key"),
+    indexes = {
+        @Index(name = "idx_sales_sale_date", columnList = "sale_date"),
+        @Index(name = "idx_sales_region_id_date", columnList = "region_id, sale_date"),
+        @Index(name = "idx_sales_payment_method_id_date", columnList = "payment_method_id, sale_date"),
+        @Index(name = "idx_sales_product_date", columnList = "product_id, sale_date"),
+        @Index(name = "idx_sales_customer_name_date", columnList = "customer_name, sale_date"),
+        @Index(name = "idx_sales_total_amount_minor", columnList = "total_amount_minor")
+    }
+)
+@EntityListeners({SaleIdListener.class, DictionaryListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Sale {
+    // Snowflake id, see SaleIdListener
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @ManyToOne
@@ -23,15 +36,29 @@ public class Sale {
     @Column(nullable = false)
     private Integer quantity;
 
-    @Column(nullable = false)
-    private Double totalAmount;
+    // Cents; see Money
+    @Column(name = "total_amount_minor", nullable = false)
+    private long totalAmountMinor;
 
     @Column(nullable = false)
     private LocalDateTime saleDate;
 
     private String customerName;
 
+    @Column(name = "region_id")
+    @Convert(converter = RegionConverter.class)
     private String region;
 
+    @Column(name = "payment_method_id")
+    @Convert(converter = PaymentMethodConverter.class)
     private String paymentMethod;
+
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    // Optimistic lock; the default lets the column be added to a populated table
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,27 @@
+package com.ecommerce.dashboard.entity;
+
+import com.ecommerce.dashboard.util.SnowflakeIdGenerator;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Assigns new sales a Snowflake id. Hibernate runs pre-persist callbacks before it reads
+ * an assigned id, so saves need no explicit id and inserts can be batched, which
+ * IDENTITY prevents.
+ */
+public class SaleIdListener {
+
+    private final ObjectProvider<SnowflakeIdGenerator> saleIdGenerator;
+
+    // See DictionaryListener
+    public SaleIdListener(ObjectProvider<SnowflakeIdGenerator> saleIdGenerator) {
+        this.saleIdGenerator = saleIdGenerator;
+    }
+
+    @PrePersist
+    public void assignId(Sale sale) {
+        if (sale.getId() == null) {
+            sale.setId(saleIdGenerator.getObject().nextId());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.dashboard.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only R2DBC mapping of the sales table for the reactive read endpoints. Writes
+ * go through {@link Sale}. Region and payment method are the reference table codes.
+ */
+@Table("sales")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleRow {
+    @Id
+    private Long id;
+
+    @Column("product_id")
+    private Long productId;
+
+    private Integer quantity;
+
+    @Column("total_amount_minor")
+    private long totalAmountMinor;
+
+    @Column("sale_date")
+    private LocalDateTime saleDate;
+
+    @Column("customer_name")
+    private String customerName;
+
+    @Column("region_id")
+    private Short regionId;
+
+    @Column("payment_method_id")
+    private Short paymentMethodId;
+
+    private Long version;
+}
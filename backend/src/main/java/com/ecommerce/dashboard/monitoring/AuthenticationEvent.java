@@ -0,0 +1,35 @@
+package com.ecommerce.dashboard.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * Authentication of a request that carries a bearer token.
+ */
+@Name(AuthenticationEvent.NAME)
+@Label("JWT Authentication")
+@Category({"Dashboard", "Security"})
+@StackTrace(false)
+@Setter
+public class AuthenticationEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.ecommerce.dashboard.Authentication";
+
+    @Label("Token Parse Time")
+    @Timespan
+    private long parseTime;
+
+    @Label("User Load Time")
+    @Timespan
+    private long userLoadTime;
+
+    @Label("User Loaded")
+    private boolean userLoaded;
+
+    @Label("Authenticated")
+    private boolean authenticated;
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.dashboard.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * A call to a Spring Data repository method, including the transaction it may open.
+ */
+@Name(RepositoryCallEvent.NAME)
+@Label("Repository Call")
+@Category({"Dashboard", "Repositories"})
+@StackTrace(false)
+@Setter
+public class RepositoryCallEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.ecommerce.dashboard.RepositoryCall";
+
+    @Label("Repository")
+    private String repository;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Rows Returned")
+    private long rows;
+}
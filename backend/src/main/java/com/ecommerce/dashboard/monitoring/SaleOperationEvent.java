@@ -0,0 +1,36 @@
+package com.ecommerce.dashboard.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * A sale listing or export. Exports leave the conversion time at zero, listings the bytes.
+ */
+@Name(SaleOperationEvent.NAME)
+@Label("Sale Operation")
+@Category({"Dashboard", "Sales"})
+@StackTrace(false)
+@Setter
+public class SaleOperationEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.ecommerce.dashboard.SaleOperation";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Rows Read")
+    private long rows;
+
+    @Label("DTO Conversion Time")
+    @Timespan
+    private long conversionTime;
+
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytesWritten;
+}
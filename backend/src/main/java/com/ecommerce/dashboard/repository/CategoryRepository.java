@@ -0,0 +1,8 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.entity.Category;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryRepository extends DictionaryRepository<Category> {
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.entity.CustomerSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerSketchRepository extends JpaRepository<CustomerSketch, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CustomerSketch> findBySketchDateAndRegionAndProductId(LocalDate sketchDate, String region, Long productId);
+
+    @Query("SELECT c.registers FROM CustomerSketch c WHERE c.sketchDate BETWEEN :startDate AND :endDate " +
+           "AND (:region IS NULL OR c.region = :region) AND (:productId IS NULL OR c.productId = :productId)")
+    List<byte[]> findRegisters(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("region") String region,
+        @Param("productId") Long productId
+    );
+}
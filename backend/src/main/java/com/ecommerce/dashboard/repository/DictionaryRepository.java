@@ -0,0 +1,11 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.entity.DictionaryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+import java.util.Optional;
+
+@NoRepositoryBean
+public interface DictionaryRepository<E extends DictionaryEntry> extends JpaRepository<E, Short> {
+    Optional<E> findByName(String name);
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.entity.PaymentMethod;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PaymentMethodRepository extends DictionaryRepository<PaymentMethod> {
+}
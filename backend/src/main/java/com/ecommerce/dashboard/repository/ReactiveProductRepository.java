@@ -0,0 +1,12 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.entity.ProductRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveProductRepository extends R2dbcRepository<ProductRow, Long> {
+
+    Flux<ProductRow> findByCategoryId(Short categoryId);
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.entity.SaleRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking reads of the sales table. The aggregates mirror the ones in
+ * {@link SaleAggregateQueries}, with codes in place of names.
+ */
+@Repository
+public interface ReactiveSaleRepository extends R2dbcRepository<SaleRow, Long> {
+
+    /**
+     * Sales in sale date order. Null bounds are open; both bounds are inclusive.
+     */
+    @Query("SELECT * FROM sales WHERE (:from IS NULL OR sale_date >= :from) AND (:to IS NULL OR sale_date <= :to) " +
+           "ORDER BY sale_date, id")
+    Flux<SaleRow> streamInDateOrder(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT COUNT(*) AS sale_count, COALESCE(SUM(total_amount_minor), 0) AS revenue FROM sales " +
+           "WHERE sale_date >= :from AND sale_date < :to")
+    Mono<Totals> summarize(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT p.category_id AS code, SUM(s.total_amount_minor) AS revenue FROM sales s " +
+           "JOIN products p ON p.id = s.product_id " +
+           "WHERE s.sale_date >= :from AND s.sale_date < :to GROUP BY p.category_id")
+    Flux<CodeRevenue> sumRevenueByCategory(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT region_id AS code, SUM(total_amount_minor) AS revenue FROM sales " +
+           "WHERE sale_date >= :from AND sale_date < :to GROUP BY region_id")
+    Flux<CodeRevenue> sumRevenueByRegion(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT CAST(sale_date AS DATE) AS sale_day, SUM(total_amount_minor) AS revenue, COUNT(*) AS sale_count FROM sales " +
+           "WHERE sale_date >= :from AND sale_date < :to GROUP BY CAST(sale_date AS DATE) ORDER BY 1")
+    Flux<DayRevenue> sumRevenueByDay(LocalDateTime from, LocalDateTime to);
+
+    record Totals(Long saleCount, Long revenue) {
+    }
+
+    record CodeRevenue(Short code, Long revenue) {
+    }
+
+    record DayRevenue(LocalDate saleDay, Long revenue, Long saleCount) {
+    }
+}
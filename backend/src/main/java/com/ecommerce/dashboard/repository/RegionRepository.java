@@ -0,0 +1,8 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.entity.Region;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RegionRepository extends DictionaryRepository<Region> {
+}
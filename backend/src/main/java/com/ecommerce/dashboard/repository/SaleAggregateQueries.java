@@ -0,0 +1,31 @@
+package com.ecommerce.dashboard.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dashboard aggregates over a half-open sale date range, answered either by the single
+ * sales table or by the shards. Amounts are sums of minor units.
+ */
+public interface SaleAggregateQueries {
+
+    /**
+     * One row of sale count and revenue.
+     */
+    List<Object[]> summarize(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Category name and revenue, ordered by category.
+     */
+    List<Object[]> sumRevenueByCategory(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Region name and revenue, ordered by region.
+     */
+    List<Object[]> sumRevenueByRegion(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Day, revenue and sale count, ordered by day.
+     */
+    List<Object[]> sumRevenueByDay(LocalDateTime from, LocalDateTime to);
+}
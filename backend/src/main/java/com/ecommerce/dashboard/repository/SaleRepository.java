@@ -1,28 +1,137 @@
 package com.ecommerce.dashboard.repository;
 
 import com.ecommerce.dashboard.entity.Sale;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface SaleRepository extends JpaRepository<Sale, Long> {
+public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificationExecutor<Sale>, SaleAggregateQueries {
 
     @Query("SELECT s FROM Sale s WHERE s.saleDate BETWEEN :startDate AND :endDate")
-    Page<Sale> findBySaleDateBetween(
+    List<Sale> findBySaleDateBetween(
         @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate,
-        Pageable pageable
+        @Param("endDate") LocalDateTime endDate
     );
 
-    @Query("SELECT s FROM Sale s WHERE s.saleDate BETWEEN :startDate AND :endDate")
-    List<Sale> findBySaleDateBetween(
+    @Query("SELECT s FROM Sale s JOIN FETCH s.product WHERE s.saleDate >= :from AND s.saleDate < :to ORDER BY s.saleDate, s.id")
+    List<Sale> findExportChunk(
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    @Query("SELECT s FROM Sale s JOIN FETCH s.product WHERE s.idempotencyKey = :idempotencyKey")
+    Optional<Sale> findByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+
+    @Query("SELECT s.version FROM Sale s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT s.idempotencyKey FROM Sale s WHERE s.idempotencyKey IN :idempotencyKeys")
+    List<String> findExistingIdempotencyKeys(@Param("idempotencyKeys") Collection<String> idempotencyKeys);
+
+    @Override
+    @Query("SELECT COUNT(s), COALESCE(SUM(s.totalAmountMinor), 0) FROM Sale s WHERE s.saleDate >= :from AND s.saleDate < :to")
+    List<Object[]> summarize(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Override
+    @Query("SELECT p.category, SUM(s.totalAmountMinor) FROM Sale s JOIN s.product p " +
+           "WHERE s.saleDate >= :from AND s.saleDate < :to GROUP BY p.category ORDER BY p.category")
+    List<Object[]> sumRevenueByCategory(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Override
+    @Query("SELECT s.region, SUM(s.totalAmountMinor) FROM Sale s " +
+           "WHERE s.saleDate >= :from AND s.saleDate < :to GROUP BY s.region ORDER BY s.region")
+    List<Object[]> sumRevenueByRegion(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Override
+    @Query("SELECT CAST(s.saleDate AS LocalDate), SUM(s.totalAmountMinor), COUNT(s) FROM Sale s " +
+           "WHERE s.saleDate >= :from AND s.saleDate < :to GROUP BY CAST(s.saleDate AS LocalDate) ORDER BY 1")
+    List<Object[]> sumRevenueByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT truncate(s.saleDate, minute), SUM(s.totalAmountMinor), COUNT(s) FROM Sale s " +
+           "WHERE s.saleDate >= :from AND s.saleDate < :to GROUP BY truncate(s.saleDate, minute) ORDER BY 1")
+    List<Object[]> sumRevenueByMinute(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT truncate(s.saleDate, hour), SUM(s.totalAmountMinor), COUNT(s) FROM Sale s " +
+           "WHERE s.saleDate >= :from AND s.saleDate < :to GROUP BY truncate(s.saleDate, hour) ORDER BY 1")
+    List<Object[]> sumRevenueByHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT truncate(s.saleDate, month), SUM(s.totalAmountMinor), COUNT(s) FROM Sale s " +
+           "WHERE s.saleDate >= :from AND s.saleDate < :to GROUP BY truncate(s.saleDate, month) ORDER BY 1")
+    List<Object[]> sumRevenueByMonth(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Current and previous period revenue, quantity and sale count per group, in that
+     * order. Both periods are read in one pass over the sale date index; the previous
+     * one must end at or before {@code from}.
+     */
+    String PERIOD_COMPARISON_SUMS =
+        "SUM(CASE WHEN s.saleDate >= :from THEN s.totalAmountMinor ELSE 0 END), " +
+        "SUM(CASE WHEN s.saleDate < :from THEN s.totalAmountMinor ELSE 0 END), " +
+        "SUM(CASE WHEN s.saleDate >= :from THEN s.quantity ELSE 0 END), " +
+        "SUM(CASE WHEN s.saleDate < :from THEN s.quantity ELSE 0 END), " +
+        "SUM(CASE WHEN s.saleDate >= :from THEN 1 ELSE 0 END), " +
+        "SUM(CASE WHEN s.saleDate < :from THEN 1 ELSE 0 END) ";
+
+    String PERIOD_COMPARISON_RANGES =
+        "WHERE (s.saleDate >= :from AND s.saleDate < :to) " +
+        "OR (s.saleDate >= :previousFrom AND s.saleDate < :previousTo) ";
+
+    @Query("SELECT p.category, " + PERIOD_COMPARISON_SUMS + "FROM Sale s JOIN s.product p " +
+           PERIOD_COMPARISON_RANGES + "GROUP BY p.category ORDER BY 2 DESC")
+    List<Object[]> comparePeriodsByCategory(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                            @Param("previousFrom") LocalDateTime previousFrom,
+                                            @Param("previousTo") LocalDateTime previousTo);
+
+    @Query("SELECT s.region, " + PERIOD_COMPARISON_SUMS + "FROM Sale s " +
+           PERIOD_COMPARISON_RANGES + "GROUP BY s.region ORDER BY 2 DESC")
+    List<Object[]> comparePeriodsByRegion(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                          @Param("previousFrom") LocalDateTime previousFrom,
+                                          @Param("previousTo") LocalDateTime previousTo);
+
+    @Query("SELECT p.name, " + PERIOD_COMPARISON_SUMS + "FROM Sale s JOIN s.product p " +
+           PERIOD_COMPARISON_RANGES + "GROUP BY p.id, p.name ORDER BY 2 DESC")
+    List<Object[]> comparePeriodsByProduct(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                           @Param("previousFrom") LocalDateTime previousFrom,
+                                           @Param("previousTo") LocalDateTime previousTo);
+
+    @Query("SELECT s FROM Sale s WHERE s.id > :afterId ORDER BY s.id")
+    List<Sale> findBatchAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Next chunk of ids for a bulk operation. Null criteria do not filter.
+     */
+    @Query("SELECT s.id FROM Sale s WHERE s.id > :afterId " +
+           "AND (:startDate IS NULL OR s.saleDate >= :startDate) " +
+           "AND (:endDate IS NULL OR s.saleDate <= :endDate) " +
+           "AND (:productId IS NULL OR s.product.id = :productId) " +
+           "AND (:region IS NULL OR s.region = :region) ORDER BY s.id")
+    List<Long> findIdsAfter(
+        @Param("afterId") Long afterId,
         @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate
+        @Param("endDate") LocalDateTime endDate,
+        @Param("productId") Long productId,
+        @Param("region") String region,
+        Pageable pageable
     );
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Sale s WHERE s.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MIN(s.saleDate) FROM Sale s")
+    LocalDateTime findMinSaleDate();
+
+    @Query("SELECT MAX(s.saleDate) FROM Sale s")
+    LocalDateTime findMaxSaleDate();
 }
@@ -0,0 +1,59 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.dto.SaleFilter;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.util.Money;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SaleSpecifications {
+
+    private SaleSpecifications() {
+    }
+
+    /**
+     * Combines the non-null criteria of the filter. Each criterion has an index
+     * led by its column and followed by sale_date, see {@link Sale}.
+     */
+    public static Specification<Sale> matching(SaleFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getStartDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("saleDate"), filter.getStartDate()));
+            }
+            if (filter.getEndDate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("saleDate"), filter.getEndDate()));
+            }
+            if (filter.getRegion() != null) {
+                predicates.add(cb.equal(root.get("region"), filter.getRegion()));
+            }
+            if (filter.getPaymentMethod() != null) {
+                predicates.add(cb.equal(root.get("paymentMethod"), filter.getPaymentMethod()));
+            }
+            if (filter.getProductId() != null) {
+                predicates.add(cb.equal(root.get("product").get("id"), filter.getProductId()));
+            }
+            if (filter.getCategory() != null) {
+                predicates.add(cb.equal(root.join("product").get("category"), filter.getCategory()));
+            }
+            if (filter.getCustomerNamePrefix() != null) {
+                predicates.add(cb.like(root.get("customerName"), escapeLike(filter.getCustomerNamePrefix()) + "%", '\\'));
+            }
+            if (filter.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("totalAmountMinor"), Money.toMinorUnits(filter.getMinAmount())));
+            }
+            if (filter.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("totalAmountMinor"), Money.toMinorUnits(filter.getMaxAmount())));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
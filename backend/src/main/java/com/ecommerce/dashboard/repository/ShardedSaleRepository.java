@@ -0,0 +1,730 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.dto.SaleFilter;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.service.DictionaryService;
+import com.ecommerce.dashboard.util.Money;
+import com.ecommerce.dashboard.util.SnowflakeIdGenerator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Optional hash-sharded storage for sales. When {@code sales.sharding.enabled} is set,
+ * sales live only in the shard databases, and products, dictionaries and everything
+ * else stay in the primary database. Each sale goes to the shard chosen by hashing its
+ * product id or region code. Ids come from the Snowflake generator, so they are unique
+ * across shards.
+ * <p>
+ * Reads run on every shard in parallel and are merged. Listings merge the sorted pages
+ * of each shard, exports merge the shards' date-ordered cursors, and aggregates add up
+ * the partial sums. A filter on the shard key reads only the owning shard. Writes to
+ * different shards are not atomic together, and idempotency keys are unique per shard
+ * only; the key check before each insert covers all shards.
+ */
+@Repository
+public class ShardedSaleRepository implements SaleAggregateQueries {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedSaleRepository.class);
+
+    private static final String COLUMNS = "id, product_id, quantity, total_amount_minor, sale_date, "
+            + "customer_name, region_id, payment_method_id, idempotency_key";
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS sales ("
+            + "id BIGINT NOT NULL PRIMARY KEY, "
+            + "product_id BIGINT NOT NULL, "
+            + "quantity INT NOT NULL, "
+            + "total_amount_minor BIGINT NOT NULL, "
+            + "sale_date DATETIME(6) NOT NULL, "
+            + "customer_name VARCHAR(255), "
+            + "region_id SMALLINT, "
+            + "payment_method_id SMALLINT, "
+            + "idempotency_key VARCHAR(64), "
+            + "CONSTRAINT uk_sales_idempotency_key UNIQUE (idempotency_key), "
+            + "INDEX idx_sales_sale_date (sale_date, id), "
+            + "INDEX idx_sales_region_id_date (region_id, sale_date), "
+            + "INDEX idx_sales_payment_method_id_date (payment_method_id, sale_date), "
+            + "INDEX idx_sales_product_date (product_id, sale_date), "
+            + "INDEX idx_sales_customer_name_date (customer_name, sale_date), "
+            + "INDEX idx_sales_total_amount_minor (total_amount_minor))";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "id", "id",
+        "saleDate", "sale_date",
+        "totalAmountMinor", "total_amount_minor",
+        "quantity", "quantity",
+        "customerName", "customer_name"
+    );
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Autowired
+    private SnowflakeIdGenerator saleIdGenerator;
+
+    @Value("${sales.sharding.enabled}")
+    private boolean enabled;
+
+    @Value("${sales.sharding.urls}")
+    private String[] urls;
+
+    @Value("${sales.sharding.username}")
+    private String username;
+
+    @Value("${sales.sharding.password}")
+    private String password;
+
+    @Value("${sales.sharding.key}")
+    private String shardKey;
+
+    @Value("${sales.sharding.pool-size}")
+    private int poolSize;
+
+    @Value("${sales.sharding.merge-batch-size}")
+    private int mergeBatchSize;
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    private void openShards() {
+        if (!enabled) {
+            return;
+        }
+        if (urls.length == 0) {
+            throw new IllegalStateException("sales.sharding.urls must list at least one shard");
+        }
+        if (!shardKey.equals("product") && !shardKey.equals("region")) {
+            throw new IllegalStateException("sales.sharding.key must be product or region: " + shardKey);
+        }
+
+        for (int i = 0; i < urls.length; i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("sale-shard-" + i);
+            config.setJdbcUrl(urls[i].trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            HikariDataSource dataSource = new HikariDataSource(config);
+            dataSources.add(dataSource);
+            JdbcTemplate shard = new JdbcTemplate(dataSource);
+            shard.execute(CREATE_TABLE);
+            shards.add(shard);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(shards.size() * 2, runnable -> {
+            Thread thread = new Thread(runnable, "sale-shard-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Sales sharded by {} over {} shards", shardKey, shards.size());
+    }
+
+    @PreDestroy
+    private void closeShards() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(Sale sale) {
+        long key = shardKey.equals("product")
+            ? sale.getProduct().getId()
+            : dictionaryService.regions().codeOf(sale.getRegion());
+        return shardOfKey(key);
+    }
+
+    /**
+     * Inserts new sales, grouped into one batch per shard.
+     */
+    public List<Sale> saveAll(List<Sale> sales) {
+        Map<Integer, List<Sale>> byShard = new HashMap<>();
+        for (Sale sale : sales) {
+            if (sale.getId() == null) {
+                sale.setId(saleIdGenerator.nextId());
+            }
+            dictionaryService.registerNames(sale);
+            byShard.computeIfAbsent(shardOf(sale), shard -> new ArrayList<>()).add(sale);
+        }
+        scatter(new ArrayList<>(byShard.keySet()), shard -> shards.get(shard).batchUpdate(
+            "INSERT INTO sales (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            byShard.get(shard).stream().map(this::insertArgs).toList()));
+        return sales;
+    }
+
+    public Sale save(Sale sale) {
+        if (sale.getId() == null) {
+            return saveAll(List.of(sale)).get(0);
+        }
+        dictionaryService.registerNames(sale);
+        int owner = shardOf(sale);
+        int updated = shards.get(owner).update(
+            "UPDATE sales SET product_id = ?, quantity = ?, total_amount_minor = ?, sale_date = ?, "
+                + "customer_name = ?, region_id = ?, payment_method_id = ?, idempotency_key = ? WHERE id = ?",
+            updateArgs(sale));
+        if (updated == 0) {
+            // The shard key changed, so the row moves. Insert first so it is never missing.
+            shards.get(owner).update("INSERT INTO sales (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", insertArgs(sale));
+            scatter(otherShards(owner), shard -> shards.get(shard).update("DELETE FROM sales WHERE id = ?", sale.getId()));
+        }
+        return sale;
+    }
+
+    public Optional<Sale> findById(Long id) {
+        return findFirst("id = ?", id);
+    }
+
+    public Optional<Sale> findByIdempotencyKey(String idempotencyKey) {
+        return findFirst("idempotency_key = ?", idempotencyKey);
+    }
+
+    public List<String> findExistingIdempotencyKeys(Collection<String> idempotencyKeys) {
+        String sql = "SELECT idempotency_key FROM sales WHERE idempotency_key IN (" + placeholders(idempotencyKeys.size()) + ")";
+        return scatter(allShards(), shard -> shards.get(shard).queryForList(sql, String.class, idempotencyKeys.toArray()))
+            .stream().flatMap(List::stream).toList();
+    }
+
+    public boolean deleteById(Long id) {
+        return scatter(allShards(), shard -> shards.get(shard).update("DELETE FROM sales WHERE id = ?", id))
+            .stream().mapToInt(Integer::intValue).sum() > 0;
+    }
+
+    public long count() {
+        return scatter(allShards(), shard -> shards.get(shard).queryForObject("SELECT COUNT(*) FROM sales", Long.class))
+            .stream().mapToLong(Long::longValue).sum();
+    }
+
+    public List<Sale> findAll() {
+        Map<Long, Product> products = products();
+        return scatter(allShards(), shard -> shards.get(shard).query("SELECT " + COLUMNS + " FROM sales", saleMapper(products)))
+            .stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Each shard returns its first offset + size rows in the requested order; merging
+     * those and skipping the offset gives the page. Deep pages therefore read more rows
+     * per shard than shallow ones.
+     */
+    public Page<Sale> findAll(SaleFilter filter, Pageable pageable) {
+        Map<Long, Product> products = products();
+        Where where = where(filter, products);
+        Comparator<Sale> comparator = comparator(pageable.getSort());
+        String orderBy = orderBy(pageable.getSort());
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        List<Integer> targets = targets(filter);
+
+        CompletableFuture<List<Long>> counts = CompletableFuture.supplyAsync(() -> scatter(targets, shard ->
+            shards.get(shard).queryForObject("SELECT COUNT(*) FROM sales" + where.sql(), Long.class, where.args())), executor);
+        List<List<Sale>> pages = scatter(targets, shard -> shards.get(shard).query(
+            "SELECT " + COLUMNS + " FROM sales" + where.sql() + " ORDER BY " + orderBy + " LIMIT ?",
+            saleMapper(products), append(where.args(), limit)));
+
+        List<Sale> content = merge(pages, comparator, pageable.getOffset(), pageable.getPageSize());
+        long total = join(counts).stream().mapToLong(Long::longValue).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Streams sales in sale date order, reading each shard in keyset batches. Null bounds
+     * are open; both bounds are inclusive.
+     */
+    public Iterator<Sale> iterateInDateOrder(LocalDateTime from, LocalDateTime to) {
+        Map<Long, Product> products = products();
+        List<ShardCursor> cursors = allShards().stream()
+            .map(shard -> new ShardCursor(shards.get(shard), saleMapper(products), from, to))
+            .toList();
+        scatter(allShards(), shard -> {
+            cursors.get(shard).fill();
+            return null;
+        });
+        return new MergingIterator(cursors);
+    }
+
+    public List<Sale> findExportChunk(LocalDateTime from, LocalDateTime to) {
+        Map<Long, Product> products = products();
+        List<List<Sale>> chunks = scatter(allShards(), shard -> shards.get(shard).query(
+            "SELECT " + COLUMNS + " FROM sales WHERE sale_date >= ? AND sale_date < ? ORDER BY sale_date, id",
+            saleMapper(products), from, to));
+        return merge(chunks, Comparator.comparing(Sale::getSaleDate).thenComparing(Sale::getId), 0, Integer.MAX_VALUE);
+    }
+
+    public List<Sale> findBatchAfterId(long afterId, int limit) {
+        Map<Long, Product> products = products();
+        List<List<Sale>> batches = scatter(allShards(), shard -> shards.get(shard).query(
+            "SELECT " + COLUMNS + " FROM sales WHERE id > ? ORDER BY id LIMIT ?", saleMapper(products), afterId, limit));
+        return merge(batches, Comparator.comparing(Sale::getId), 0, limit);
+    }
+
+    public LocalDateTime findMinSaleDate() {
+        return scatter(allShards(), shard -> shards.get(shard).queryForObject("SELECT MIN(sale_date) FROM sales", LocalDateTime.class))
+            .stream().filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    public LocalDateTime findMaxSaleDate() {
+        return scatter(allShards(), shard -> shards.get(shard).queryForObject("SELECT MAX(sale_date) FROM sales", LocalDateTime.class))
+            .stream().filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    @Override
+    public List<Object[]> summarize(LocalDateTime from, LocalDateTime to) {
+        long count = 0;
+        long revenue = 0;
+        for (List<Object[]> rows : aggregate("COUNT(*), COALESCE(SUM(total_amount_minor), 0)", null, from, to)) {
+            count += ((Number) rows.get(0)[0]).longValue();
+            revenue += ((Number) rows.get(0)[1]).longValue();
+        }
+        List<Object[]> totals = new ArrayList<>();
+        totals.add(new Object[] {count, revenue});
+        return totals;
+    }
+
+    /**
+     * Shards only know product ids, so revenue is summed per product and folded into
+     * categories here.
+     */
+    @Override
+    public List<Object[]> sumRevenueByCategory(LocalDateTime from, LocalDateTime to) {
+        Map<Long, Product> products = products();
+        Map<String, Long> revenue = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        for (List<Object[]> rows : aggregate("product_id, SUM(total_amount_minor)", "product_id", from, to)) {
+            for (Object[] row : rows) {
+                Product product = products.get(((Number) row[0]).longValue());
+                revenue.merge(product != null ? product.getCategory() : null, ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+        return toRows(revenue);
+    }
+
+    @Override
+    public List<Object[]> sumRevenueByRegion(LocalDateTime from, LocalDateTime to) {
+        Map<String, Long> revenue = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        for (List<Object[]> rows : aggregate("region_id, SUM(total_amount_minor)", "region_id", from, to)) {
+            for (Object[] row : rows) {
+                String region = row[0] != null ? dictionaryService.regions().nameOf(((Number) row[0]).shortValue()) : null;
+                revenue.merge(region, ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+        return toRows(revenue);
+    }
+
+    @Override
+    public List<Object[]> sumRevenueByDay(LocalDateTime from, LocalDateTime to) {
+        Map<LocalDate, long[]> days = new TreeMap<>();
+        for (List<Object[]> rows : aggregate("CAST(sale_date AS DATE), SUM(total_amount_minor), COUNT(*)", "CAST(sale_date AS DATE)", from, to)) {
+            for (Object[] row : rows) {
+                LocalDate date = row[0] instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) row[0];
+                long[] day = days.computeIfAbsent(date, key -> new long[2]);
+                day[0] += ((Number) row[1]).longValue();
+                day[1] += ((Number) row[2]).longValue();
+            }
+        }
+        List<Object[]> result = new ArrayList<>(days.size());
+        days.forEach((day, sums) -> result.add(new Object[] {day, sums[0], sums[1]}));
+        return result;
+    }
+
+    private List<List<Object[]>> aggregate(String select, String groupBy, LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT " + select + " FROM sales WHERE sale_date >= ? AND sale_date < ?"
+            + (groupBy != null ? " GROUP BY " + groupBy : "");
+        return scatter(allShards(), shard -> shards.get(shard).query(sql, (rs, rowNum) -> {
+            Object[] row = new Object[rs.getMetaData().getColumnCount()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        }, from, to));
+    }
+
+    private List<Object[]> toRows(Map<String, Long> revenue) {
+        List<Object[]> rows = new ArrayList<>(revenue.size());
+        revenue.forEach((name, sum) -> rows.add(new Object[] {name, sum}));
+        return rows;
+    }
+
+    private Optional<Sale> findFirst(String condition, Object value) {
+        Map<Long, Product> products = products();
+        return scatter(allShards(), shard -> shards.get(shard).query(
+                "SELECT " + COLUMNS + " FROM sales WHERE " + condition, saleMapper(products), value))
+            .stream().flatMap(List::stream).findFirst();
+    }
+
+    private <T> List<T> scatter(List<Integer> targets, Function<Integer, T> query) {
+        if (targets.size() == 1) {
+            return List.of(query.apply(targets.get(0)));
+        }
+        List<CompletableFuture<T>> futures = targets.stream()
+            .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), executor))
+            .toList();
+        return futures.stream().map(this::join).toList();
+    }
+
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * K-way merge of lists that are each sorted by the comparator.
+     */
+    static <T> List<T> merge(List<List<T>> sortedLists, Comparator<T> comparator, long skip, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) ->
+            comparator.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1])));
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+
+        List<T> merged = new ArrayList<>();
+        long skipped = 0;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<T> list = sortedLists.get(head[0]);
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                merged.add(list.get(head[1]));
+            }
+            if (head[1] + 1 < list.size()) {
+                heads.add(new int[] {head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    private List<Integer> allShards() {
+        return IntStream.range(0, shards.size()).boxed().toList();
+    }
+
+    private List<Integer> otherShards(int owner) {
+        return IntStream.range(0, shards.size()).filter(shard -> shard != owner).boxed().toList();
+    }
+
+    /**
+     * Only the owning shard can hold rows that match an equality filter on the shard key.
+     */
+    private List<Integer> targets(SaleFilter filter) {
+        if (shardKey.equals("product") && filter.getProductId() != null) {
+            return List.of(shardOfKey(filter.getProductId()));
+        }
+        if (shardKey.equals("region") && filter.getRegion() != null) {
+            return List.of(shardOfKey(dictionaryService.regions().codeOf(filter.getRegion())));
+        }
+        return allShards();
+    }
+
+    private int shardOfKey(long key) {
+        // Fibonacci hashing spreads sequential product ids evenly
+        return (int) Math.floorMod((key * 0x9E3779B97F4A7C15L) >>> 32, (long) shards.size());
+    }
+
+    private Where where(SaleFilter filter, Map<Long, Product> products) {
+        List<String> clauses = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (filter.getStartDate() != null) {
+            clauses.add("sale_date >= ?");
+            args.add(filter.getStartDate());
+        }
+        if (filter.getEndDate() != null) {
+            clauses.add("sale_date <= ?");
+            args.add(filter.getEndDate());
+        }
+        if (filter.getRegion() != null) {
+            clauses.add("region_id = ?");
+            args.add(dictionaryService.regions().codeOf(filter.getRegion()));
+        }
+        if (filter.getPaymentMethod() != null) {
+            clauses.add("payment_method_id = ?");
+            args.add(dictionaryService.paymentMethods().codeOf(filter.getPaymentMethod()));
+        }
+        if (filter.getProductId() != null) {
+            clauses.add("product_id = ?");
+            args.add(filter.getProductId());
+        }
+        if (filter.getCategory() != null) {
+            // Categories live with the products in the primary database
+            List<Long> productIds = products.values().stream()
+                .filter(product -> filter.getCategory().equals(product.getCategory()))
+                .map(Product::getId)
+                .toList();
+            clauses.add(productIds.isEmpty() ? "1 = 0" : "product_id IN (" + placeholders(productIds.size()) + ")");
+            args.addAll(productIds);
+        }
+        if (filter.getCustomerNamePrefix() != null) {
+            clauses.add("customer_name LIKE ? ESCAPE '!'");
+            args.add(filter.getCustomerNamePrefix().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+        }
+        if (filter.getMinAmount() != null) {
+            clauses.add("total_amount_minor >= ?");
+            args.add(Money.toMinorUnits(filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            clauses.add("total_amount_minor <= ?");
+            args.add(Money.toMinorUnits(filter.getMaxAmount()));
+        }
+        return new Where(clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses), args.toArray());
+    }
+
+    private String orderBy(Sort sort) {
+        List<String> columns = new ArrayList<>();
+        Sort.Direction tiebreak = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            columns.add(sortColumn(order.getProperty()) + " " + order.getDirection().name());
+            if (columns.size() == 1) {
+                tiebreak = order.getDirection();
+            }
+        }
+        columns.add("id " + tiebreak.name());
+        return String.join(", ", columns);
+    }
+
+    /**
+     * Matches the databases' ordering: nulls sort low and names compare without case.
+     */
+    private Comparator<Sale> comparator(Sort sort) {
+        Comparator<Sale> comparator = null;
+        boolean ascending = true;
+        for (Sort.Order order : sort) {
+            sortColumn(order.getProperty());
+            Comparator<Sale> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(Sale::getId);
+                case "saleDate" -> Comparator.comparing(Sale::getSaleDate);
+                case "totalAmountMinor" -> Comparator.comparingLong(Sale::getTotalAmountMinor);
+                case "quantity" -> Comparator.comparing(Sale::getQuantity);
+                default -> Comparator.comparing(Sale::getCustomerName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            if (comparator == null) {
+                ascending = order.isAscending();
+                comparator = next;
+            } else {
+                comparator = comparator.thenComparing(next);
+            }
+        }
+        Comparator<Sale> byId = ascending ? Comparator.comparing(Sale::getId) : Comparator.comparing(Sale::getId).reversed();
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private String sortColumn(String property) {
+        String column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new RuntimeException("Sharded sales cannot be sorted by: " + property);
+        }
+        return column;
+    }
+
+    private Map<Long, Product> products() {
+        return productRepository.findAll().stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    private RowMapper<Sale> saleMapper(Map<Long, Product> products) {
+        return (rs, rowNum) -> {
+            Sale sale = new Sale();
+            sale.setId(rs.getLong("id"));
+            long productId = rs.getLong("product_id");
+            // No foreign key across databases; a deleted product keeps its sales
+            sale.setProduct(products.getOrDefault(productId, new Product(productId, null, null, null, null)));
+            sale.setQuantity(rs.getInt("quantity"));
+            sale.setTotalAmountMinor(rs.getLong("total_amount_minor"));
+            sale.setSaleDate(rs.getObject("sale_date", LocalDateTime.class));
+            sale.setCustomerName(rs.getString("customer_name"));
+            sale.setRegion(name(rs, "region_id", dictionaryService.regions()));
+            sale.setPaymentMethod(name(rs, "payment_method_id", dictionaryService.paymentMethods()));
+            sale.setIdempotencyKey(rs.getString("idempotency_key"));
+            return sale;
+        };
+    }
+
+    private String name(ResultSet rs, String column, DictionaryService.Dictionary<?> dictionary) throws SQLException {
+        short code = rs.getShort(column);
+        return rs.wasNull() ? null : dictionary.nameOf(code);
+    }
+
+    private Object[] insertArgs(Sale sale) {
+        return new Object[] {
+            sale.getId(),
+            sale.getProduct().getId(),
+            sale.getQuantity(),
+            sale.getTotalAmountMinor(),
+            sale.getSaleDate(),
+            sale.getCustomerName(),
+            code(dictionaryService.regions(), sale.getRegion()),
+            code(dictionaryService.paymentMethods(), sale.getPaymentMethod()),
+            sale.getIdempotencyKey()
+        };
+    }
+
+    private Object[] updateArgs(Sale sale) {
+        Object[] insertArgs = insertArgs(sale);
+        Object[] args = new Object[insertArgs.length];
+        System.arraycopy(insertArgs, 1, args, 0, insertArgs.length - 1);
+        args[args.length - 1] = sale.getId();
+        return args;
+    }
+
+    private Short code(DictionaryService.Dictionary<?> dictionary, String name) {
+        return name == null ? null : dictionary.codeOf(name);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", java.util.Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] append(Object[] args, Object value) {
+        Object[] appended = java.util.Arrays.copyOf(args, args.length + 1);
+        appended[args.length] = value;
+        return appended;
+    }
+
+    private record Where(String sql, Object[] args) {
+    }
+
+    /**
+     * Reads one shard in (sale_date, id) order, a batch at a time.
+     */
+    private class ShardCursor {
+        private final JdbcTemplate shard;
+        private final RowMapper<Sale> mapper;
+        private final LocalDateTime end;
+        private final Deque<Sale> buffer = new ArrayDeque<>();
+        private LocalDateTime lastDate;
+        private long lastId = Long.MIN_VALUE;
+        private boolean exhausted;
+
+        ShardCursor(JdbcTemplate shard, RowMapper<Sale> mapper, LocalDateTime start, LocalDateTime end) {
+            this.shard = shard;
+            this.mapper = mapper;
+            this.end = end;
+            this.lastDate = start;
+        }
+
+        Sale peek() {
+            if (buffer.isEmpty() && !exhausted) {
+                fill();
+            }
+            return buffer.peek();
+        }
+
+        Sale poll() {
+            Sale sale = peek();
+            buffer.poll();
+            return sale;
+        }
+
+        // Until the first row is read, lastDate is the start bound, or null if there is none
+        void fill() {
+            List<String> predicates = new ArrayList<>();
+            List<Object> args = new ArrayList<>();
+            if (lastDate != null) {
+                predicates.add("(sale_date > ? OR (sale_date = ? AND id > ?))");
+                args.addAll(List.of(lastDate, lastDate, lastId));
+            }
+            if (end != null) {
+                predicates.add("sale_date <= ?");
+                args.add(end);
+            }
+            args.add(mergeBatchSize);
+            String where = predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+            List<Sale> batch = shard.query(
+                "SELECT " + COLUMNS + " FROM sales" + where + " ORDER BY sale_date, id LIMIT ?", mapper, args.toArray());
+            if (batch.size() < mergeBatchSize) {
+                exhausted = true;
+            }
+            if (!batch.isEmpty()) {
+                Sale last = batch.get(batch.size() - 1);
+                lastDate = last.getSaleDate();
+                lastId = last.getId();
+            }
+            buffer.addAll(batch);
+        }
+    }
+
+    private static class MergingIterator implements Iterator<Sale> {
+        private final PriorityQueue<ShardCursor> cursors = new PriorityQueue<>(
+            Comparator.comparing((ShardCursor cursor) -> cursor.peek().getSaleDate()).thenComparing(cursor -> cursor.peek().getId()));
+
+        MergingIterator(List<ShardCursor> shardCursors) {
+            for (ShardCursor cursor : shardCursors) {
+                if (cursor.peek() != null) {
+                    cursors.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public Sale next() {
+            ShardCursor cursor = cursors.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            Sale sale = cursor.poll();
+            if (cursor.peek() != null) {
+                cursors.add(cursor);
+            }
+            return sale;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.dashboard.security;
+
+/**
+ * Concurrency limit that adapts to latency, after the Gradient2 algorithm from
+ * Netflix's concurrency-limits. A long-term average RTT is compared to each sample:
+ * while samples stay close to the average the limit grows by a queue allowance of
+ * sqrt(limit); when latency rises the limit shrinks in proportion.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_DECAY = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private double longRttNanos;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases a permit taken by {@link #tryAcquire()} and feeds its round-trip time.
+     */
+    public synchronized void release(long rttNanos) {
+        int sampledInFlight = inFlight;
+        inFlight--;
+
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            return;
+        }
+        longRttNanos = longRttNanos * (1 - LONG_RTT_DECAY) + rttNanos * LONG_RTT_DECAY;
+
+        // An under-used limit says nothing about capacity, so only grow while it is the bottleneck
+        if (sampledInFlight * 2 < limit) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+}
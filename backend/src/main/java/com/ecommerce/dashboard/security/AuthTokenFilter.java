@@ -1,5 +1,7 @@
 package com.ecommerce.dashboard.security;
 
+import com.ecommerce.dashboard.monitoring.AuthenticationEvent;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,6 +13,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
@@ -22,26 +26,48 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        String jwt = null;
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            jwt = parseJwt(request);
+            long parseStart = System.nanoTime();
+            Claims claims = jwt != null ? jwtUtils.parseJwtClaims(jwt) : null;
+            event.setParseTime(System.nanoTime() - parseStart);
+            if (claims != null && !tokenRevocationList.isRevoked(claims.getId())) {
+                UserDetails userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+                if (userDetails == null) {
+                    long loadStart = System.nanoTime();
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                    event.setUserLoadTime(System.nanoTime() - loadStart);
+                    event.setUserLoaded(true);
+                }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Async dispatches, which finish reactive bodies, skip this filter and load it from here
+                securityContextRepository.saveContext(SecurityContextHolder.getContext(), request, response);
+                event.setAuthenticated(true);
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
         }
+        if (jwt != null) {
+            event.commit();
+        }
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,214 @@
+package com.ecommerce.dashboard.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load before it reaches the controllers. Every caller gets a token bucket per
+ * endpoint group and is answered 429 when it runs dry; export and analytics requests
+ * additionally share an adaptive concurrency limit per group and are answered 503
+ * when it is reached. Runs after {@link AuthTokenFilter} so callers are keyed by
+ * username, falling back to the remote address.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> concurrencyLimiters = new EnumMap<>(EndpointGroup.class);
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+
+    @Value("${ratelimit.enabled}")
+    private boolean enabled;
+
+    @Value("${ratelimit.default.requests-per-second}")
+    private double defaultRate;
+
+    @Value("${ratelimit.default.burst}")
+    private int defaultBurst;
+
+    @Value("${ratelimit.analytics.requests-per-second}")
+    private double analyticsRate;
+
+    @Value("${ratelimit.analytics.burst}")
+    private int analyticsBurst;
+
+    @Value("${ratelimit.export.requests-per-second}")
+    private double exportRate;
+
+    @Value("${ratelimit.export.burst}")
+    private int exportBurst;
+
+    @Value("${ratelimit.analytics-paths}")
+    private String[] analyticsPaths;
+
+    @Value("${ratelimit.export-paths}")
+    private String[] exportPaths;
+
+    @Value("${ratelimit.concurrency.initial-limit}")
+    private int initialConcurrencyLimit;
+
+    @Value("${ratelimit.concurrency.min-limit}")
+    private int minConcurrencyLimit;
+
+    @Value("${ratelimit.concurrency.max-limit}")
+    private int maxConcurrencyLimit;
+
+    @PostConstruct
+    private void createConcurrencyLimiters() {
+        concurrencyLimiters.put(EndpointGroup.ANALYTICS,
+            new AdaptiveConcurrencyLimiter(initialConcurrencyLimit, minConcurrencyLimit, maxConcurrencyLimit));
+        concurrencyLimiters.put(EndpointGroup.EXPORT,
+            new AdaptiveConcurrencyLimiter(initialConcurrencyLimit, minConcurrencyLimit, maxConcurrencyLimit));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointGroup group = classify(request.getServletPath());
+
+        TokenBucket bucket = buckets.get(callerKey(request) + ":" + group, key -> newBucket(group));
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            reject(request, response, 429, "Too Many Requests", waitNanos);
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiters.get(group);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            logger.warn("Shedding {} request {}: concurrency limit {} reached", group, request.getServletPath(), limiter.getLimit());
+            reject(request, response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service Unavailable", TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streaming responses finish after this filter returns
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private EndpointGroup classify(String path) {
+        for (String pattern : exportPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return EndpointGroup.EXPORT;
+            }
+        }
+        for (String pattern : analyticsPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return EndpointGroup.ANALYTICS;
+            }
+        }
+        return EndpointGroup.DEFAULT;
+    }
+
+    private String callerKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private TokenBucket newBucket(EndpointGroup group) {
+        return switch (group) {
+            case EXPORT -> new TokenBucket(exportBurst, exportRate);
+            case ANALYTICS -> new TokenBucket(analyticsBurst, analyticsRate);
+            default -> new TokenBucket(defaultBurst, defaultRate);
+        };
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, int status, String error, long retryAfterNanos)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999));
+
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        final Map<String, Object> body = new HashMap<>();
+        body.put("status", status);
+        body.put("error", error);
+        body.put("message", "Retry after " + retryAfterSeconds + " seconds");
+        body.put("path", request.getServletPath());
+        mapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private enum EndpointGroup {
+        DEFAULT, ANALYTICS, EXPORT
+    }
+
+    private static class ReleaseOnComplete implements AsyncListener {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+
+        ReleaseOnComplete(AdaptiveConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.dashboard.security;
+
+public class TokenRefreshException extends RuntimeException {
+    public TokenRefreshException(String message) {
+        super(message);
+    }
+}
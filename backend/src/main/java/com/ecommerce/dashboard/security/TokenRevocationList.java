@@ -0,0 +1,58 @@
+package com.ecommerce.dashboard.security;
+
+import com.ecommerce.dashboard.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of access tokens revoked before they expire. Every authenticated request checks
+ * this list, so a Bloom filter answers the common "not revoked" case without touching
+ * the map. The map holds each id until its token would have expired anyway, and the
+ * filter is rebuilt from the map as ids are purged.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+
+    @Value("${jwt.revocation.expected-entries}")
+    private int expectedEntries;
+
+    private volatile BloomFilter filter;
+    private int revokedSinceRebuild;
+
+    public void revoke(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedUntil.put(tokenId, expiresAtMillis);
+        synchronized (this) {
+            if (filter == null || ++revokedSinceRebuild > expectedEntries / 2) {
+                rebuild();
+            } else {
+                filter.add(tokenId);
+            }
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        BloomFilter current = filter;
+        if (tokenId == null || current == null || !current.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revokedUntil.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    private void rebuild() {
+        long now = System.currentTimeMillis();
+        revokedUntil.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revokedUntil.size() * 2), 0.01);
+        revokedUntil.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        revokedSinceRebuild = 0;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.CacheRegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class CacheStatsService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsDTO> getSecondLevelCacheStats() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        // Query results regions are listed with the entity and collection regions, but the
+        // domain data lookup rejects them
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().forEach(name -> {
+            CacheRegionStatistics region = sessionFactory.getCache().getRegion(name) instanceof QueryResultsRegion
+                    ? statistics.getQueryRegionStatistics(name)
+                    : statistics.getDomainDataRegionStatistics(name);
+            regions.add(toDTO(name, region.getHitCount(), region.getMissCount(), region.getPutCount()));
+        });
+        return regions;
+    }
+
+    private CacheRegionStatsDTO toDTO(String region, long hits, long misses, long puts) {
+        long lookups = hits + misses;
+        double hitRatio = lookups == 0 ? 0 : (double) hits / lookups;
+        return new CacheRegionStatsDTO(region, hits, misses, puts, hitRatio);
+    }
+}
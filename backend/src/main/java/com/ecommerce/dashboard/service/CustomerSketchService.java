@@ -0,0 +1,114 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.UniqueCustomersDTO;
+import com.ecommerce.dashboard.entity.CustomerSketch;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.repository.CustomerSketchRepository;
+import com.ecommerce.dashboard.util.HyperLogLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maintains one HyperLogLog sketch of customer names per (day, region, product).
+ * Sketches only grow: a sale that is edited or deleted keeps counting towards its
+ * original sketch until {@link #rebuild(List)} runs.
+ */
+@Service
+public class CustomerSketchService {
+
+    private static final String UNKNOWN_REGION = "";
+
+    @Autowired
+    private CustomerSketchRepository customerSketchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public void recordSale(Sale sale) {
+        String customer = normalizeCustomer(sale.getCustomerName());
+        if (customer == null) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> addToSketch(sale, customer));
+        } catch (DataIntegrityViolationException e) {
+            // Another writer created the same sketch row first; it exists now, so merge into it
+            transactionTemplate.executeWithoutResult(status -> addToSketch(sale, customer));
+        }
+    }
+
+    public UniqueCustomersDTO estimateUniqueCustomers(LocalDate startDate, LocalDate endDate, String region, Long productId) {
+        List<byte[]> sketches = customerSketchRepository.findRegisters(startDate, endDate, region, productId);
+
+        HyperLogLog merged = new HyperLogLog();
+        for (byte[] sketch : sketches) {
+            merged.merge(sketch);
+        }
+
+        return new UniqueCustomersDTO(
+            startDate,
+            endDate,
+            region,
+            productId,
+            merged.estimate(),
+            HyperLogLog.RELATIVE_STANDARD_ERROR,
+            sketches.size()
+        );
+    }
+
+    @Transactional
+    public void rebuild(List<Sale> sales) {
+        Map<SketchKey, HyperLogLog> sketches = new HashMap<>();
+        for (Sale sale : sales) {
+            String customer = normalizeCustomer(sale.getCustomerName());
+            if (customer != null) {
+                sketches.computeIfAbsent(keyOf(sale), key -> new HyperLogLog()).add(customer);
+            }
+        }
+
+        List<CustomerSketch> rows = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) ->
+            rows.add(new CustomerSketch(null, key.day(), key.region(), key.productId(), sketch.toBytes())));
+
+        customerSketchRepository.deleteAllInBatch();
+        customerSketchRepository.saveAll(rows);
+    }
+
+    private void addToSketch(Sale sale, String customer) {
+        SketchKey key = keyOf(sale);
+        CustomerSketch row = customerSketchRepository
+                .findBySketchDateAndRegionAndProductId(key.day(), key.region(), key.productId())
+                .orElseGet(() -> new CustomerSketch(null, key.day(), key.region(), key.productId(), null));
+
+        HyperLogLog sketch = row.getRegisters() == null ? new HyperLogLog() : HyperLogLog.fromBytes(row.getRegisters());
+        sketch.add(customer);
+        row.setRegisters(sketch.toBytes());
+        customerSketchRepository.saveAndFlush(row);
+    }
+
+    private SketchKey keyOf(Sale sale) {
+        String region = sale.getRegion() == null ? UNKNOWN_REGION : sale.getRegion();
+        return new SketchKey(sale.getSaleDate().toLocalDate(), region, sale.getProduct().getId());
+    }
+
+    // Matches COUNT(DISTINCT customer_name) under MySQL's case-insensitive default collation
+    private String normalizeCustomer(String customerName) {
+        if (customerName == null || customerName.isBlank()) {
+            return null;
+        }
+        return customerName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record SketchKey(LocalDate day, String region, Long productId) {
+    }
+}
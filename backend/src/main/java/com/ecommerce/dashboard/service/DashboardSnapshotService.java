@@ -0,0 +1,199 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.DailySalesDTO;
+import com.ecommerce.dashboard.dto.DashboardSummaryDTO;
+import com.ecommerce.dashboard.repository.SaleAggregateQueries;
+import com.ecommerce.dashboard.repository.SaleRepository;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
+import com.ecommerce.dashboard.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed dashboard summaries for the common date windows. Each snapshot records
+ * the data version it was computed from; a sale write bumps the version and schedules
+ * a debounced recompute, and a read that finds an outdated snapshot recomputes it.
+ * Concurrent recomputes of the same window share one query.
+ */
+@Service
+public class DashboardSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardSnapshotService.class);
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ShardedSaleRepository shardedSaleRepository;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${dashboard.snapshot.refresh-debounce-ms}")
+    private long refreshDebounceMs;
+
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final Map<Window, DashboardSummaryDTO> snapshots = new ConcurrentHashMap<>();
+    private final Map<Window, CompletableFuture<DashboardSummaryDTO>> inFlight = new ConcurrentHashMap<>();
+
+    public DashboardSummaryDTO getSummary(String window) {
+        Window resolved = Window.fromKey(window);
+        DashboardSummaryDTO snapshot = snapshots.get(resolved);
+        if (isCurrent(resolved, snapshot)) {
+            return snapshot;
+        }
+        return compute(resolved);
+    }
+
+    @EventListener
+    public void onSaleChanged(SaleChangedEvent event) {
+        dataVersion.incrementAndGet();
+        if (refreshScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                refreshScheduled.set(false);
+                refreshAll();
+            }, Instant.now().plusMillis(refreshDebounceMs));
+        }
+    }
+
+    /**
+     * Also catches the window boundaries moving at midnight and writes that bypass
+     * {@link SaleService}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.refresh-interval-ms}",
+               initialDelayString = "${dashboard.snapshot.refresh-interval-ms}")
+    public void refreshAll() {
+        for (Window window : Window.values()) {
+            try {
+                compute(window);
+            } catch (RuntimeException e) {
+                logger.error("Failed to refresh dashboard snapshot {}: {}", window.key, e.getMessage());
+            }
+        }
+    }
+
+    private boolean isCurrent(Window window, DashboardSummaryDTO snapshot) {
+        return snapshot != null
+            && snapshot.getVersion() == dataVersion.get()
+            && snapshot.getStartDate().equals(window.startDate(LocalDate.now()));
+    }
+
+    private DashboardSummaryDTO compute(Window window) {
+        CompletableFuture<DashboardSummaryDTO> computation = new CompletableFuture<>();
+        CompletableFuture<DashboardSummaryDTO> existing = inFlight.putIfAbsent(window, computation);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        try {
+            DashboardSummaryDTO snapshot = query(window, dataVersion.get());
+            snapshots.put(window, snapshot);
+            computation.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            computation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(window, computation);
+        }
+    }
+
+    private DashboardSummaryDTO query(Window window, long version) {
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = window.startDate(today);
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = today.plusDays(1).atStartOfDay();
+
+        SaleAggregateQueries aggregates = shardedSaleRepository.isEnabled() ? shardedSaleRepository : saleRepository;
+        Object[] totals = aggregates.summarize(from, to).get(0);
+        long totalSales = ((Number) totals[0]).longValue();
+        long totalRevenue = ((Number) totals[1]).longValue();
+
+        List<DailySalesDTO> dailySales = new ArrayList<>();
+        for (Object[] row : aggregates.sumRevenueByDay(from, to)) {
+            long revenue = ((Number) row[1]).longValue();
+            dailySales.add(new DailySalesDTO((LocalDate) row[0], Money.toMajorUnits(revenue), ((Number) row[2]).longValue()));
+        }
+
+        return new DashboardSummaryDTO(
+            window.key,
+            startDate,
+            today,
+            totalSales,
+            Money.toMajorUnits(totalRevenue),
+            totalSales > 0 ? Money.toMajorUnits(totalRevenue) / totalSales : 0,
+            toRevenueMap(aggregates.sumRevenueByCategory(from, to)),
+            toRevenueMap(aggregates.sumRevenueByRegion(from, to)),
+            dailySales,
+            version,
+            LocalDateTime.now()
+        );
+    }
+
+    /**
+     * Sums stay in minor units until the end; null names are folded into "Unknown".
+     */
+    private Map<String, Double> toRevenueMap(List<Object[]> rows) {
+        Map<String, long[]> minorUnits = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            String name = row[0] != null ? (String) row[0] : "Unknown";
+            minorUnits.computeIfAbsent(name, key -> new long[1])[0] += ((Number) row[1]).longValue();
+        }
+
+        Map<String, Double> revenue = new LinkedHashMap<>();
+        minorUnits.forEach((name, sum) -> revenue.put(name, Money.toMajorUnits(sum[0])));
+        return revenue;
+    }
+
+    private enum Window {
+        TODAY("today", 0),
+        LAST_7_DAYS("7d", 7),
+        LAST_30_DAYS("30d", 30),
+        LAST_90_DAYS("90d", 90);
+
+        private final String key;
+        private final int days;
+
+        Window(String key, int days) {
+            this.key = key;
+            this.days = days;
+        }
+
+        LocalDate startDate(LocalDate today) {
+            return today.minusDays(days);
+        }
+
+        static Window fromKey(String key) {
+            return Arrays.stream(values())
+                .filter(window -> window.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Unknown dashboard window: " + key));
+        }
+    }
+}
@@ -4,20 +4,33 @@ import com.ecommerce.dashboard.entity.Product;
 import com.ecommerce.dashboard.entity.Role;
 import com.ecommerce.dashboard.entity.Sale;
 import com.ecommerce.dashboard.entity.User;
+import com.ecommerce.dashboard.repository.CustomerSketchRepository;
 import com.ecommerce.dashboard.repository.ProductRepository;
 import com.ecommerce.dashboard.repository.RoleRepository;
 import com.ecommerce.dashboard.repository.SaleRepository;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
 import com.ecommerce.dashboard.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.*;
 
+/**
+ * Creates the roles on startup and, when {@code app.seed.enabled} is set, the demo users,
+ * products and sales. With {@code app.seed.async} the demo data is written on a
+ * background thread so it does not hold up startup.
+ */
 @Service
 public class DataInitializerService implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializerService.class);
+
     @Autowired
     private RoleRepository roleRepository;
 
@@ -30,17 +43,61 @@ public class DataInitializerService implements CommandLineRunner {
     @Autowired
     private SaleRepository saleRepository;
 
+    @Autowired
+    private ShardedSaleRepository shardedSaleRepository;
+
+    @Autowired
+    private CustomerSketchRepository customerSketchRepository;
+
+    @Autowired
+    private CustomerSketchService customerSketchService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.seed.enabled}")
+    private boolean seedEnabled;
+
+    @Value("${app.seed.async}")
+    private boolean seedAsync;
+
     @Override
     public void run(String... args) throws Exception {
-        // Initialize Roles
+        // Roles are needed for signup, so they are never deferred
         if (roleRepository.count() == 0) {
-            roleRepository.save(new Role(null, "ROLE_USER"));
-            roleRepository.save(new Role(null, "ROLE_ADMIN"));
+            roleRepository.saveAll(List.of(new Role(null, "ROLE_USER"), new Role(null, "ROLE_ADMIN")));
         }
 
+        if (!seedEnabled) {
+            return;
+        }
+        if (seedAsync) {
+            Thread seeder = new Thread(() -> {
+                try {
+                    seedDemoData();
+                } catch (RuntimeException e) {
+                    logger.error("Failed to seed demo data", e);
+                }
+            }, "demo-data-seed");
+            seeder.setDaemon(true);
+            seeder.start();
+        } else {
+            seedDemoData();
+        }
+    }
+
+    private void seedDemoData() {
+        long start = System.nanoTime();
+
         // Initialize demo users
         if (userRepository.count() == 0) {
             Role adminRole = roleRepository.findByName("ROLE_ADMIN").orElseThrow();
@@ -51,28 +108,28 @@ public class DataInitializerService implements CommandLineRunner {
             admin.setEmail("admin@example.com");
             admin.setPassword(passwordEncoder.encode("admin123"));
             admin.setRoles(new HashSet<>(Arrays.asList(adminRole, userRole)));
-            userRepository.save(admin);
 
             User user = new User();
             user.setUsername("user");
             user.setEmail("user@example.com");
             user.setPassword(passwordEncoder.encode("user123"));
             user.setRoles(new HashSet<>(Collections.singletonList(userRole)));
-            userRepository.save(user);
+            userRepository.saveAll(List.of(admin, user));
         }
 
         // Initialize sample products and sales
         if (productRepository.count() == 0) {
-            List<Product> products = Arrays.asList(
-                new Product(null, "Laptop", "Electronics", 899.99),
-                new Product(null, "Smartphone", "Electronics", 599.99),
-                new Product(null, "Headphones", "Electronics", 149.99),
-                new Product(null, "T-Shirt", "Clothing", 29.99),
-                new Product(null, "Jeans", "Clothing", 59.99),
-                new Product(null, "Coffee Maker", "Home Appliances", 79.99),
-                new Product(null, "Blender", "Home Appliances", 49.99)
+            List<Product> newProducts = Arrays.asList(
+                new Product(null, "Laptop", "Electronics", 89999L, null),
+                new Product(null, "Smartphone", "Electronics", 59999L, null),
+                new Product(null, "Headphones", "Electronics", 14999L, null),
+                new Product(null, "T-Shirt", "Clothing", 2999L, null),
+                new Product(null, "Jeans", "Clothing", 5999L, null),
+                new Product(null, "Coffee Maker", "Home Appliances", 7999L, null),
+                new Product(null, "Blender", "Home Appliances", 4999L, null)
             );
-            productRepository.saveAll(products);
+            newProducts.forEach(dictionaryService::registerNames);
+            List<Product> products = productRepository.saveAll(newProducts);
 
             // Generate sample sales data
             Random random = new Random();
@@ -80,22 +137,37 @@ public class DataInitializerService implements CommandLineRunner {
             String[] paymentMethods = {"Credit Card", "Debit Card", "Cash", "UPI"};
             String[] customerNames = {"John Doe", "Jane Smith", "Bob Johnson", "Alice Williams", "Charlie Brown"};
 
+            List<Sale> sales = new ArrayList<>(100);
             for (int i = 0; i < 100; i++) {
                 Product product = products.get(random.nextInt(products.size()));
                 int quantity = random.nextInt(5) + 1;
-                double totalAmount = product.getPrice() * quantity;
 
                 Sale sale = new Sale();
                 sale.setProduct(product);
                 sale.setQuantity(quantity);
-                sale.setTotalAmount(totalAmount);
+                sale.setTotalAmountMinor(product.getPriceMinor() * quantity);
                 sale.setSaleDate(LocalDateTime.now().minusDays(random.nextInt(90)));
                 sale.setCustomerName(customerNames[random.nextInt(customerNames.length)]);
                 sale.setRegion(regions[random.nextInt(regions.length)]);
                 sale.setPaymentMethod(paymentMethods[random.nextInt(paymentMethods.length)]);
+                sales.add(sale);
+            }
+            sales.forEach(dictionaryService::registerNames);
+            sales = shardedSaleRepository.isEnabled() ? shardedSaleRepository.saveAll(sales) : saleRepository.saveAll(sales);
+
+            products.forEach(searchService::indexProduct);
+            sales.forEach(searchService::indexSale);
+            eventPublisher.publishEvent(new SaleChangedEvent(sales.size()));
+        }
 
-                saleRepository.save(sale);
+        // Build customer sketches for sales that predate them
+        if (shardedSaleRepository.isEnabled()) {
+            if (customerSketchRepository.count() == 0 && shardedSaleRepository.count() > 0) {
+                customerSketchService.rebuild(shardedSaleRepository.findAll());
             }
+        } else if (customerSketchRepository.count() == 0 && saleRepository.count() > 0) {
+            customerSketchService.rebuild(saleRepository.findAll());
         }
+        logger.info("Demo data ready in {} ms", (System.nanoTime() - start) / 1_000_000);
     }
 }
@@ -0,0 +1,74 @@
+package com.ecommerce.dashboard.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.util.List;
+
+/**
+ * Moves the free-form region, payment method and category columns onto the reference
+ * tables. Hibernate's schema update has already added the code columns and reference
+ * tables when this runs. For each legacy column that is still present, the distinct
+ * names are copied into the reference table and the codes are backfilled in primary
+ * key ranges. Then the column and its indexes are dropped. Foreign keys are added
+ * whenever they are missing, so the migration is safe to rerun after a failure.
+ */
+@Service
+public class DictionaryMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryMigration.class);
+
+    private static final List<Column> COLUMNS = List.of(
+        new Column("sales", "region", "region_id", "regions", "fk_sales_region"),
+        new Column("sales", "payment_method", "payment_method_id", "payment_methods", "fk_sales_payment_method"),
+        new Column("products", "category", "category_id", "categories", "fk_products_category")
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchemaMetadata schemaMetadata;
+
+    @Value("${schema.migration.batch-size}")
+    private int batchSize;
+
+    public void migrate() {
+        for (Column column : COLUMNS) {
+            if (schemaMetadata.hasColumn(column.table(), column.legacyColumn())) {
+                backfill(column);
+            }
+            if (!schemaMetadata.hasForeignKey(column.table(), column.foreignKey())) {
+                jdbcTemplate.execute("ALTER TABLE " + column.table() + " ADD CONSTRAINT " + column.foreignKey()
+                        + " FOREIGN KEY (" + column.codeColumn() + ") REFERENCES " + column.dictionaryTable() + " (id)");
+            }
+        }
+    }
+
+    private void backfill(Column column) {
+        long start = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO " + column.dictionaryTable() + " (name) "
+                + "SELECT DISTINCT t." + column.legacyColumn() + " FROM " + column.table() + " t "
+                + "WHERE t." + column.legacyColumn() + " IS NOT NULL AND NOT EXISTS "
+                + "(SELECT 1 FROM " + column.dictionaryTable() + " d WHERE d.name = t." + column.legacyColumn() + ")");
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + column.table(), Long.class);
+        String update = "UPDATE " + column.table() + " SET " + column.codeColumn() + " = "
+                + "(SELECT d.id FROM " + column.dictionaryTable() + " d WHERE d.name = " + column.table() + "." + column.legacyColumn() + ") "
+                + "WHERE id > ? AND id <= ? AND " + column.codeColumn() + " IS NULL";
+        long updated = 0;
+        for (long from = 0; maxId != null && from < maxId; from += batchSize) {
+            updated += jdbcTemplate.update(update, from, from + batchSize);
+        }
+
+        schemaMetadata.dropColumn(column.table(), column.legacyColumn());
+        logger.info("Moved {}.{} to {} ({} rows) in {} ms", column.table(), column.legacyColumn(),
+                column.dictionaryTable(), updated, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private record Column(String table, String legacyColumn, String codeColumn, String dictionaryTable, String foreignKey) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.entity.Category;
+import com.ecommerce.dashboard.entity.DictionaryEntry;
+import com.ecommerce.dashboard.entity.PaymentMethod;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Region;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.repository.CategoryRepository;
+import com.ecommerce.dashboard.repository.DictionaryRepository;
+import com.ecommerce.dashboard.repository.PaymentMethodRepository;
+import com.ecommerce.dashboard.repository.RegionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory code/name maps for the region, payment method and category reference tables.
+ * Entities keep string attributes; the converters in the entity package store them as
+ * the codes held here.
+ */
+@Service
+public class DictionaryService {
+
+    /**
+     * Code for a name that is not in the dictionary. It matches no row in a query and
+     * fails the foreign key if it is ever written.
+     */
+    public static final short UNKNOWN_CODE = -1;
+
+    @Autowired
+    private RegionRepository regionRepository;
+
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DictionaryMigration dictionaryMigration;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Dictionary<Region> regions;
+    private Dictionary<PaymentMethod> paymentMethods;
+    private Dictionary<Category> categories;
+
+    @PostConstruct
+    private void load() {
+        dictionaryMigration.migrate();
+
+        // New names are committed on their own, so a rolled back sale never leaves a
+        // cached code without its row. Callers register before they open the transaction
+        // that writes the row, so this never waits for a second pooled connection.
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        regions = new Dictionary<>(regionRepository, Region::new, requiresNew);
+        paymentMethods = new Dictionary<>(paymentMethodRepository, PaymentMethod::new, requiresNew);
+        categories = new Dictionary<>(categoryRepository, Category::new, requiresNew);
+    }
+
+    public Dictionary<Region> regions() {
+        return regions;
+    }
+
+    public Dictionary<PaymentMethod> paymentMethods() {
+        return paymentMethods;
+    }
+
+    public Dictionary<Category> categories() {
+        return categories;
+    }
+
+    /**
+     * Adds the region and payment method of the sale if they are new.
+     */
+    public void registerNames(Sale sale) {
+        regions.register(sale.getRegion());
+        paymentMethods.register(sale.getPaymentMethod());
+    }
+
+    public void registerNames(Product product) {
+        categories.register(product.getCategory());
+    }
+
+    public static final class Dictionary<E extends DictionaryEntry> {
+
+        private final DictionaryRepository<E> repository;
+        private final Function<String, E> factory;
+        private final TransactionTemplate transactionTemplate;
+        private final Map<String, Short> codes = new ConcurrentHashMap<>();
+        private final Map<Short, String> names = new ConcurrentHashMap<>();
+
+        private Dictionary(DictionaryRepository<E> repository, Function<String, E> factory,
+                           TransactionTemplate transactionTemplate) {
+            this.repository = repository;
+            this.factory = factory;
+            this.transactionTemplate = transactionTemplate;
+            repository.findAll().forEach(this::cache);
+        }
+
+        public short codeOf(String name) {
+            return codes.getOrDefault(name, UNKNOWN_CODE);
+        }
+
+        public boolean isRegistered(String name) {
+            return name == null || codes.containsKey(name);
+        }
+
+        public String nameOf(short code) {
+            String name = names.get(code);
+            if (name == null) {
+                // Added by another instance since we loaded
+                E entry = repository.findById(code)
+                        .orElseThrow(() -> new RuntimeException("Dictionary entry not found with id: " + code));
+                cache(entry);
+                name = entry.getName();
+            }
+            return name;
+        }
+
+        /**
+         * Adds the name to the reference table if it is new. Must not be called inside a
+         * transaction: the insert runs in its own.
+         */
+        public void register(String name) {
+            if (name == null || codes.containsKey(name)) {
+                return;
+            }
+            synchronized (this) {
+                if (codes.containsKey(name)) {
+                    return;
+                }
+                E entry;
+                try {
+                    entry = transactionTemplate.execute(status ->
+                            repository.findByName(name).orElseGet(() -> repository.save(factory.apply(name))));
+                } catch (DataIntegrityViolationException e) {
+                    // Inserted concurrently by another instance
+                    entry = repository.findByName(name).orElseThrow(() -> e);
+                }
+                cache(entry);
+                // Differs from the stored name when the column collation ignores case
+                codes.put(name, entry.getId());
+            }
+        }
+
+        private void cache(E entry) {
+            names.put(entry.getId(), entry.getName());
+            codes.put(entry.getName(), entry.getId());
+        }
+    }
+}
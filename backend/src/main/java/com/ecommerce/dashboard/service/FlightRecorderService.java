@@ -0,0 +1,147 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.monitoring.AuthenticationEvent;
+import com.ecommerce.dashboard.monitoring.RepositoryCallEvent;
+import com.ecommerce.dashboard.monitoring.SaleOperationEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flight Recorder recordings of the JDK events and the dashboard's own. The continuous
+ * recording uses the JDK's default settings, which are meant to stay below 1% overhead,
+ * and keeps only dashboard events slower than a threshold. Time-boxed recordings keep
+ * every dashboard event and sample methods twice as often, as the JDK's profile settings do.
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final List<String> EVENTS = List.of(
+        AuthenticationEvent.NAME, SaleOperationEvent.NAME, RepositoryCallEvent.NAME);
+
+    @Value("${jfr.continuous.enabled}")
+    private boolean continuousEnabled;
+
+    @Value("${jfr.continuous.max-age-minutes}")
+    private long continuousMaxAgeMinutes;
+
+    @Value("${jfr.continuous.max-size-mb}")
+    private long continuousMaxSizeMb;
+
+    @Value("${jfr.continuous.threshold-ms}")
+    private long continuousThresholdMs;
+
+    @Value("${jfr.recording.max-duration-seconds}")
+    private long maxDurationSeconds;
+
+    private Recording continuous;
+
+    private Recording recording;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startContinuousRecording() throws IOException, ParseException {
+        if (!continuousEnabled || continuous != null) {
+            return;
+        }
+        continuous = new Recording(settings(continuousThresholdMs + " ms"));
+        continuous.setName("dashboard-continuous");
+        continuous.setToDisk(true);
+        continuous.setMaxAge(Duration.ofMinutes(continuousMaxAgeMinutes));
+        continuous.setMaxSize(continuousMaxSizeMb * 1024 * 1024);
+        continuous.start();
+        logger.info("Started continuous flight recording, keeping {} minutes", continuousMaxAgeMinutes);
+    }
+
+    @PreDestroy
+    private synchronized void closeRecordings() {
+        if (continuous != null) {
+            continuous.close();
+        }
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public long getMaxDurationSeconds() {
+        return maxDurationSeconds;
+    }
+
+    /**
+     * Starts a recording that stops by itself after the duration. The previous one is
+     * dropped. False while another is still running.
+     */
+    public synchronized boolean startRecording(Duration duration) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return false;
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        Map<String, String> settings = settings("0 ms");
+        settings.put("jdk.ExecutionSample#period", "10 ms");
+        recording = new Recording(settings);
+        recording.setName("dashboard-" + duration.toSeconds() + "s");
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.start();
+        return true;
+    }
+
+    /**
+     * State of the last recording started, or null when there is none.
+     */
+    public synchronized RecordingState getRecordingState() {
+        return recording != null ? recording.getState() : null;
+    }
+
+    /**
+     * Writes the last recording to a temporary file that the caller deletes.
+     */
+    public synchronized Path dumpRecording() throws IOException {
+        return dump(recording);
+    }
+
+    /**
+     * Writes what the continuous recording holds so far, or returns null when it is off.
+     */
+    public synchronized Path dumpContinuousRecording() throws IOException {
+        return continuous != null ? dump(continuous) : null;
+    }
+
+    private Path dump(Recording source) throws IOException {
+        Path file = Files.createTempFile(source.getName() + "-", ".jfr");
+        try {
+            source.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private Map<String, String> settings(String threshold) throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        for (String event : EVENTS) {
+            settings.put(event + "#enabled", "true");
+            settings.put(event + "#threshold", threshold);
+        }
+        return settings;
+    }
+}
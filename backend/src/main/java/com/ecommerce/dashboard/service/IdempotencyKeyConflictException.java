@@ -0,0 +1,11 @@
+package com.ecommerce.dashboard.service;
+
+/**
+ * An idempotency key was reused by another user or for a different request.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
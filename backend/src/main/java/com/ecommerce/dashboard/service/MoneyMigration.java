@@ -0,0 +1,77 @@
+package com.ecommerce.dashboard.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.util.List;
+
+/**
+ * Replaces the DOUBLE amount columns with BIGINT minor-unit columns. Runs after
+ * Hibernate's schema update. Each legacy column that is still present is copied in
+ * primary key ranges, rounded to whole cents, and then dropped. Every batch rewrites its
+ * rows from the legacy column, so a failed run can simply be repeated.
+ * <p>
+ * Some databases refuse to add a NOT NULL column to a populated table without a default.
+ * In that case Hibernate's update skips the column and its index, and both are created here.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class MoneyMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoneyMigration.class);
+
+    private static final List<Column> COLUMNS = List.of(
+        new Column("sales", "total_amount", "total_amount_minor", "BIGINT NOT NULL DEFAULT 0", "idx_sales_total_amount_minor"),
+        new Column("products", "price", "price_minor", "BIGINT", null)
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchemaMetadata schemaMetadata;
+
+    @Value("${schema.migration.batch-size}")
+    private int batchSize;
+
+    @PostConstruct
+    public void migrate() {
+        for (Column column : COLUMNS) {
+            if (schemaMetadata.hasColumn(column.table(), column.legacyColumn())) {
+                convert(column);
+            }
+        }
+    }
+
+    private void convert(Column column) {
+        long start = System.nanoTime();
+        if (!schemaMetadata.hasColumn(column.table(), column.minorUnitsColumn())) {
+            jdbcTemplate.execute("ALTER TABLE " + column.table() + " ADD COLUMN " + column.minorUnitsColumn()
+                    + " " + column.definition());
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + column.table(), Long.class);
+        String update = "UPDATE " + column.table() + " SET " + column.minorUnitsColumn()
+                + " = ROUND(" + column.legacyColumn() + " * 100) WHERE id > ? AND id <= ?";
+        long updated = 0;
+        for (long from = 0; maxId != null && from < maxId; from += batchSize) {
+            updated += jdbcTemplate.update(update, from, from + batchSize);
+        }
+
+        schemaMetadata.dropColumn(column.table(), column.legacyColumn());
+        if (column.index() != null && schemaMetadata.indexesOn(column.table(), column.minorUnitsColumn()).isEmpty()) {
+            jdbcTemplate.execute("CREATE INDEX " + column.index() + " ON " + column.table()
+                    + " (" + column.minorUnitsColumn() + ")");
+        }
+        logger.info("Converted {}.{} to minor units ({} rows) in {} ms", column.table(), column.legacyColumn(),
+                updated, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private record Column(String table, String legacyColumn, String minorUnitsColumn, String definition, String index) {
+    }
+}
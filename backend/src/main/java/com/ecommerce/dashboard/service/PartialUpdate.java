@@ -0,0 +1,42 @@
+package com.ecommerce.dashboard.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A single UPDATE of some fields of one versioned entity. It only applies while the
+ * version is still the expected one, and bumps it. The statement bypasses entity
+ * listeners, and Hibernate evicts the entity's second-level cache region after it.
+ */
+class PartialUpdate {
+
+    private final String entity;
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+
+    PartialUpdate(String entity) {
+        this.entity = entity;
+    }
+
+    PartialUpdate set(String field, Object value) {
+        if (value != null) {
+            fields.put(field, value);
+        }
+        return this;
+    }
+
+    /**
+     * Returns false when no row has both the id and the version.
+     */
+    boolean execute(EntityManager entityManager, Long id, long version) {
+        String assignments = fields.keySet().stream()
+            .map(field -> "e." + field + " = :" + field + ", ")
+            .collect(Collectors.joining());
+        Query update = entityManager.createQuery("UPDATE " + entity + " e SET " + assignments
+            + "e.version = e.version + 1 WHERE e.id = :id AND e.version = :version");
+        fields.forEach(update::setParameter);
+        return update.setParameter("id", id).setParameter("version", version).executeUpdate() > 0;
+    }
+}
@@ -1,12 +1,20 @@
 package com.ecommerce.dashboard.service;
 
 import com.ecommerce.dashboard.dto.CreateProductRequest;
+import com.ecommerce.dashboard.dto.PatchProductRequest;
 import com.ecommerce.dashboard.dto.ProductDTO;
 import com.ecommerce.dashboard.entity.Product;
 import com.ecommerce.dashboard.repository.ProductRepository;
+import com.ecommerce.dashboard.util.Money;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,6 +23,18 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<ProductDTO> getAllProducts() {
         return productRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -28,12 +48,14 @@ public class ProductService {
     }
 
     public ProductDTO createProduct(CreateProductRequest request) {
+        dictionaryService.categories().register(request.getCategory());
         Product product = new Product();
         product.setName(request.getName());
         product.setCategory(request.getCategory());
-        product.setPrice(request.getPrice());
+        product.setPriceMinor(Money.toMinorUnits(request.getPrice()));
 
         Product savedProduct = productRepository.save(product);
+        searchService.indexProduct(savedProduct);
         return convertToDTO(savedProduct);
     }
 
@@ -41,11 +63,41 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
 
+        dictionaryService.categories().register(request.getCategory());
         product.setName(request.getName());
         product.setCategory(request.getCategory());
-        product.setPrice(request.getPrice());
+        product.setPriceMinor(Money.toMinorUnits(request.getPrice()));
 
         Product updatedProduct = productRepository.save(product);
+        searchService.indexProduct(updatedProduct);
+        return convertToDTO(updatedProduct);
+    }
+
+    /**
+     * Changes only the fields present in the request; see {@link SaleService#patchSale}.
+     */
+    public ProductDTO patchProduct(Long id, PatchProductRequest request) {
+        // Outside the transaction, see DictionaryListener
+        dictionaryService.categories().register(request.getCategory());
+
+        Product updatedProduct = transactionTemplate.execute(status -> {
+            boolean updated = new PartialUpdate("Product")
+                .set("name", request.getName())
+                .set("category", request.getCategory())
+                .set("priceMinor", Money.toMinorUnits(request.getPrice()))
+                .execute(entityManager, id, request.getVersion());
+            if (!updated) {
+                long currentVersion = productRepository.findVersionById(id)
+                        .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+                throw new VersionConflictException("Product " + id + " has changed since version " + request.getVersion(),
+                        currentVersion);
+            }
+            // The cached copy is only evicted once the transaction completes
+            return entityManager.find(Product.class, id,
+                    Map.of(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS));
+        });
+
+        searchService.indexProduct(updatedProduct);
         return convertToDTO(updatedProduct);
     }
 
@@ -54,6 +106,7 @@ public class ProductService {
             throw new RuntimeException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        searchService.removeProduct(id);
     }
 
     private ProductDTO convertToDTO(Product product) {
@@ -61,7 +114,8 @@ public class ProductService {
             product.getId(),
             product.getName(),
             product.getCategory(),
-            product.getPrice()
+            Money.toMajorUnits(product.getPriceMinor()),
+            product.getVersion()
         );
     }
 }
@@ -0,0 +1,206 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.DailySalesDTO;
+import com.ecommerce.dashboard.dto.DashboardSummaryDTO;
+import com.ecommerce.dashboard.dto.ProductDTO;
+import com.ecommerce.dashboard.dto.SaleDTO;
+import com.ecommerce.dashboard.dto.SaleFilter;
+import com.ecommerce.dashboard.entity.ProductRow;
+import com.ecommerce.dashboard.entity.SaleRow;
+import com.ecommerce.dashboard.repository.ReactiveProductRepository;
+import com.ecommerce.dashboard.repository.ReactiveSaleRepository;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
+import com.ecommerce.dashboard.util.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sale and product reads over R2DBC. Nothing here blocks a thread while waiting on the
+ * database, and streams only pull rows as fast as the subscriber asks for them.
+ * Reference table names come from {@link DictionaryService}'s in-memory maps. Sales
+ * are read from the primary database only, so sale reads are refused when sales are
+ * sharded.
+ */
+@Service
+public class ReactiveSaleService {
+
+    @Autowired
+    private ReactiveSaleRepository reactiveSaleRepository;
+
+    @Autowired
+    private ReactiveProductRepository reactiveProductRepository;
+
+    @Autowired
+    private R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    @Autowired
+    private ShardedSaleRepository shardedSaleRepository;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    public Flux<ProductDTO> getAllProducts() {
+        return reactiveProductRepository.findAll().map(this::convertToDTO);
+    }
+
+    public Mono<Page<SaleDTO>> getSales(SaleFilter filter, Pageable pageable) {
+        requireUnsharded();
+        return criteria(filter).flatMap(criteria -> {
+            Mono<List<SaleRow>> rows = r2dbcEntityTemplate.select(SaleRow.class)
+                .matching(Query.query(criteria).with(pageable))
+                .all()
+                .collectList();
+            Mono<Long> total = r2dbcEntityTemplate.count(Query.query(criteria), SaleRow.class);
+            return Mono.zip(rows, total, products())
+                .map(result -> {
+                    List<SaleDTO> content = result.getT1().stream()
+                        .map(row -> convertToDTO(row, result.getT3()))
+                        .toList();
+                    return PageableExecutionUtils.getPage(content, pageable, result::getT2);
+                });
+        }).defaultIfEmpty(new PageImpl<>(List.of(), pageable, 0));
+    }
+
+    /**
+     * Sales in sale date order, with the same bounds as the CSV export.
+     */
+    public Flux<SaleDTO> exportSales(LocalDateTime startDate, LocalDateTime endDate) {
+        requireUnsharded();
+        boolean ranged = startDate != null && endDate != null;
+        return products().flatMapMany(products ->
+            reactiveSaleRepository.streamInDateOrder(ranged ? startDate : null, ranged ? endDate : null)
+                .map(row -> convertToDTO(row, products)));
+    }
+
+    /**
+     * The dashboard summary for a custom range. The four aggregates run concurrently.
+     */
+    public Mono<DashboardSummaryDTO> getSummary(LocalDateTime from, LocalDateTime to) {
+        requireUnsharded();
+        Mono<Map<String, Double>> byCategory = reactiveSaleRepository.sumRevenueByCategory(from, to)
+            .collectList()
+            .map(rows -> toRevenueMap(rows, dictionaryService.categories()));
+        Mono<Map<String, Double>> byRegion = reactiveSaleRepository.sumRevenueByRegion(from, to)
+            .collectList()
+            .map(rows -> toRevenueMap(rows, dictionaryService.regions()));
+        Mono<List<DailySalesDTO>> daily = reactiveSaleRepository.sumRevenueByDay(from, to)
+            .map(day -> new DailySalesDTO(day.saleDay(), Money.toMajorUnits(day.revenue()), day.saleCount()))
+            .collectList();
+
+        return Mono.zip(reactiveSaleRepository.summarize(from, to), byCategory, byRegion, daily)
+            .map(result -> {
+                long totalSales = result.getT1().saleCount();
+                double totalRevenue = Money.toMajorUnits(result.getT1().revenue());
+                // Computed on request, so there is no snapshot version
+                return new DashboardSummaryDTO("custom", from.toLocalDate(), to.toLocalDate(), totalSales, totalRevenue,
+                    totalSales > 0 ? totalRevenue / totalSales : 0, result.getT2(), result.getT3(), result.getT4(),
+                    0, LocalDateTime.now());
+            });
+    }
+
+    private void requireUnsharded() {
+        if (shardedSaleRepository.isEnabled()) {
+            throw new RuntimeException("Reactive sale reads are not supported when sales are sharded");
+        }
+    }
+
+    /**
+     * Empty when the category filter matches no product.
+     */
+    private Mono<Criteria> criteria(SaleFilter filter) {
+        Criteria criteria = Criteria.empty();
+        if (filter.getStartDate() != null) {
+            criteria = criteria.and("saleDate").greaterThanOrEquals(filter.getStartDate());
+        }
+        if (filter.getEndDate() != null) {
+            criteria = criteria.and("saleDate").lessThanOrEquals(filter.getEndDate());
+        }
+        if (filter.getRegion() != null) {
+            criteria = criteria.and("regionId").is(dictionaryService.regions().codeOf(filter.getRegion()));
+        }
+        if (filter.getPaymentMethod() != null) {
+            criteria = criteria.and("paymentMethodId").is(dictionaryService.paymentMethods().codeOf(filter.getPaymentMethod()));
+        }
+        if (filter.getProductId() != null) {
+            criteria = criteria.and("productId").is(filter.getProductId());
+        }
+        if (filter.getCustomerNamePrefix() != null) {
+            String prefix = filter.getCustomerNamePrefix().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            criteria = criteria.and("customerName").like(prefix + "%");
+        }
+        if (filter.getMinAmount() != null) {
+            criteria = criteria.and("totalAmountMinor").greaterThanOrEquals(Money.toMinorUnits(filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            criteria = criteria.and("totalAmountMinor").lessThanOrEquals(Money.toMinorUnits(filter.getMaxAmount()));
+        }
+        if (filter.getCategory() == null) {
+            return Mono.just(criteria);
+        }
+
+        Criteria withoutCategory = criteria;
+        return reactiveProductRepository.findByCategoryId(dictionaryService.categories().codeOf(filter.getCategory()))
+            .map(ProductRow::getId)
+            .collectList()
+            .filter(productIds -> !productIds.isEmpty())
+            .map(productIds -> withoutCategory.and("productId").in(productIds));
+    }
+
+    private Mono<Map<Long, ProductRow>> products() {
+        return reactiveProductRepository.findAll().collectMap(ProductRow::getId);
+    }
+
+    private Map<String, Double> toRevenueMap(List<ReactiveSaleRepository.CodeRevenue> rows,
+                                             DictionaryService.Dictionary<?> dictionary) {
+        // Same shape as the snapshot summaries: ordered by name, missing names as Unknown
+        Map<String, Long> minorUnits = new TreeMap<>();
+        for (ReactiveSaleRepository.CodeRevenue row : rows) {
+            String name = row.code() != null ? dictionary.nameOf(row.code()) : "Unknown";
+            minorUnits.merge(name, row.revenue(), Long::sum);
+        }
+
+        Map<String, Double> revenue = new LinkedHashMap<>();
+        minorUnits.forEach((name, sum) -> revenue.put(name, Money.toMajorUnits(sum)));
+        return revenue;
+    }
+
+    private SaleDTO convertToDTO(SaleRow row, Map<Long, ProductRow> products) {
+        ProductRow product = products.get(row.getProductId());
+        return new SaleDTO(
+            row.getId(),
+            row.getProductId(),
+            product != null ? product.getName() : null,
+            product != null ? categoryName(product) : null,
+            row.getQuantity(),
+            Money.toMajorUnits(row.getTotalAmountMinor()),
+            row.getSaleDate(),
+            row.getCustomerName(),
+            row.getRegionId() != null ? dictionaryService.regions().nameOf(row.getRegionId()) : null,
+            row.getPaymentMethodId() != null ? dictionaryService.paymentMethods().nameOf(row.getPaymentMethodId()) : null,
+            row.getVersion()
+        );
+    }
+
+    private ProductDTO convertToDTO(ProductRow product) {
+        return new ProductDTO(product.getId(), product.getName(), categoryName(product), Money.toMajorUnits(product.getPriceMinor()),
+            product.getVersion());
+    }
+
+    private String categoryName(ProductRow product) {
+        return product.getCategoryId() != null ? dictionaryService.categories().nameOf(product.getCategoryId()) : null;
+    }
+}
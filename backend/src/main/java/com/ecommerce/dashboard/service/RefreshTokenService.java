@@ -0,0 +1,151 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.JwtResponse;
+import com.ecommerce.dashboard.entity.RefreshToken;
+import com.ecommerce.dashboard.entity.User;
+import com.ecommerce.dashboard.repository.RefreshTokenRepository;
+import com.ecommerce.dashboard.repository.UserRepository;
+import com.ecommerce.dashboard.security.JwtUtils;
+import com.ecommerce.dashboard.security.TokenRefreshException;
+import com.ecommerce.dashboard.security.TokenRevocationList;
+import com.ecommerce.dashboard.security.UserDetailsImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Issues access tokens together with rotating refresh tokens. Each refresh token can be
+ * exchanged once; presenting it again means it leaked, so every token of its family is
+ * revoked along with their latest access tokens.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpirationMs;
+
+    /**
+     * Issues tokens for a new sign-in, starting a new token family.
+     */
+    @Transactional
+    public JwtResponse issueTokens(UserDetailsImpl userDetails) {
+        return issue(userDetails, UUID.randomUUID().toString());
+    }
+
+    @Transactional(noRollbackFor = TokenRefreshException.class)
+    public JwtResponse refresh(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new TokenRefreshException("Refresh token is not valid"));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (stored.getRevokedAt() != null) {
+            logger.warn("Reuse of a rotated refresh token for user {}, revoking its family", stored.getUserId());
+            revokeFamily(stored.getFamilyId(), now);
+            throw new TokenRefreshException("Refresh token was already used");
+        }
+        if (stored.getExpiresAt().isBefore(now)) {
+            throw new TokenRefreshException("Refresh token has expired");
+        }
+
+        User user = userRepository.findById(stored.getUserId())
+                .orElseThrow(() -> new TokenRefreshException("Refresh token is not valid"));
+        stored.setRevokedAt(now);
+        return issue(UserDetailsImpl.build(user), stored.getFamilyId());
+    }
+
+    /**
+     * Revokes the family of the token, as on sign-out. Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(stored -> revokeFamily(stored.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval-ms}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private JwtResponse issue(UserDetailsImpl userDetails, String familyId) {
+        String accessTokenId = UUID.randomUUID().toString();
+        String accessToken = jwtUtils.generateJwtToken(userDetails, accessTokenId);
+
+        byte[] tokenBytes = new byte[32];
+        random.nextBytes(tokenBytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+
+        refreshTokenRepository.save(new RefreshToken(
+            null,
+            hash(refreshToken),
+            familyId,
+            userDetails.getId(),
+            accessTokenId,
+            LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000),
+            null
+        ));
+
+        return new JwtResponse(accessToken,
+                refreshToken,
+                userDetails.getId(),
+                userDetails.getUsername(),
+                userDetails.getEmail(),
+                userDetails.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toList()));
+    }
+
+    private void revokeFamily(String familyId, LocalDateTime now) {
+        long accessTokenExpiry = System.currentTimeMillis() + jwtUtils.getJwtExpirationMs();
+        for (RefreshToken token : refreshTokenRepository.findByFamilyId(familyId)) {
+            if (token.getRevokedAt() == null) {
+                token.setRevokedAt(now);
+            }
+            // Access tokens issued before a rotation may still be live
+            tokenRevocationList.revoke(token.getAccessTokenId(), accessTokenExpiry);
+        }
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Serializes read-only query results to JSON, sharing one query and its bytes between
+ * identical concurrent requests. Requests are identical when their keys are equal and
+ * the callers have the same roles, so the database sees one query per distinct request
+ * however many dashboards send it at once.
+ */
+@Service
+public class ResponseCoalescingService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${coalescing.enabled}")
+    private boolean enabled;
+
+    @Value("${coalescing.ttl-ms}")
+    private long ttlMs;
+
+    private SingleFlight<List<Object>, byte[]> flights;
+
+    @PostConstruct
+    private void createFlights() {
+        flights = new SingleFlight<>(Duration.ofMillis(ttlMs));
+    }
+
+    public byte[] toJson(Object key, Supplier<?> query) {
+        if (!enabled) {
+            return serialize(query.get());
+        }
+        return flights.get(List.of(roles(), key), () -> serialize(query.get()));
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize response", e);
+        }
+    }
+
+    private static String roles() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return "";
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
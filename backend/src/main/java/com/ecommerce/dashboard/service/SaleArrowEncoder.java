@@ -0,0 +1,240 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.entity.Sale;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes sales as an Arrow IPC stream. Rows are collected into record batches of
+ * {@code batchRows}, and each batch is zstd compressed and written as soon as it fills.
+ * Product, category, region and payment method are dictionary encoded. Their dictionaries
+ * only grow, so a batch that brings a new value resends the whole dictionary and earlier
+ * indexes stay valid.
+ * <p>
+ * Vectors live off-heap in an allocator owned by the encoder, so always close it, even
+ * after {@link #finish()}.
+ */
+public class SaleArrowEncoder implements SaleColumnarEncoder {
+
+    static final Schema SCHEMA = new Schema(List.of(
+            Field.notNullable("id", new ArrowType.Int(64, true)),
+            dictionaryField("product", 0),
+            dictionaryField("category", 1),
+            Field.notNullable("quantity", new ArrowType.Int(32, true)),
+            Field.notNullable("total_amount", new ArrowType.Decimal(18, 2, 128)),
+            Field.notNullable("sale_date", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null)),
+            Field.nullable("customer", new ArrowType.Utf8()),
+            dictionaryField("region", 2),
+            dictionaryField("payment_method", 3)
+    ));
+
+    private final int batchRows;
+    private final BufferAllocator allocator;
+    private final VectorSchemaRoot root;
+    private final BigIntVector ids;
+    private final DictionaryColumn products;
+    private final DictionaryColumn categories;
+    private final IntVector quantities;
+    private final DecimalVector amounts;
+    private final TimeStampMicroVector saleDates;
+    private final VarCharVector customers;
+    private final DictionaryColumn regions;
+    private final DictionaryColumn paymentMethods;
+    private final DiscardableOutputStream output;
+    private final ArrowStreamWriter writer;
+    private int rowCount;
+    private boolean finished;
+
+    public SaleArrowEncoder(OutputStream out, int batchRows) {
+        this.batchRows = batchRows;
+        this.allocator = new RootAllocator();
+        this.root = VectorSchemaRoot.create(SCHEMA, allocator);
+        this.ids = (BigIntVector) root.getVector("id");
+        this.products = new DictionaryColumn(root, "product");
+        this.categories = new DictionaryColumn(root, "category");
+        this.quantities = (IntVector) root.getVector("quantity");
+        this.amounts = (DecimalVector) root.getVector("total_amount");
+        this.saleDates = (TimeStampMicroVector) root.getVector("sale_date");
+        this.customers = (VarCharVector) root.getVector("customer");
+        this.regions = new DictionaryColumn(root, "region");
+        this.paymentMethods = new DictionaryColumn(root, "payment_method");
+
+        DictionaryProvider.MapDictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider(
+                products.dictionary, categories.dictionary, regions.dictionary, paymentMethods.dictionary);
+        this.output = new DiscardableOutputStream(out);
+        this.writer = new ArrowStreamWriter(root, provider, Channels.newChannel(output),
+                IpcOption.DEFAULT, CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.ZSTD);
+    }
+
+    @Override
+    public void write(Sale sale) throws IOException {
+        int row = rowCount;
+        ids.setSafe(row, sale.getId());
+        products.setSafe(row, sale.getProduct().getName());
+        categories.setSafe(row, sale.getProduct().getCategory());
+        quantities.setSafe(row, sale.getQuantity());
+        amounts.setSafe(row, sale.getTotalAmountMinor());
+        saleDates.setSafe(row, toMicros(sale.getSaleDate()));
+        if (sale.getCustomerName() != null) {
+            customers.setSafe(row, sale.getCustomerName().getBytes(StandardCharsets.UTF_8));
+        } else {
+            customers.setNull(row);
+        }
+        regions.setSafe(row, sale.getRegion());
+        paymentMethods.setSafe(row, sale.getPaymentMethod());
+
+        if (++rowCount == batchRows) {
+            writeBatch();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rowCount > 0) {
+            writeBatch();
+        }
+        writer.end();
+        finished = true;
+    }
+
+    @Override
+    public void close() {
+        if (!finished) {
+            // Closing the writer would still write the end of the stream
+            output.discard();
+        }
+        try {
+            writer.close();
+        } finally {
+            root.close();
+            products.close();
+            categories.close();
+            regions.close();
+            paymentMethods.close();
+            allocator.close();
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        root.setRowCount(rowCount);
+        writer.writeBatch();
+        root.getFieldVectors().forEach(vector -> vector.reset());
+        rowCount = 0;
+    }
+
+    private static Field dictionaryField(String name, long dictionaryId) {
+        DictionaryEncoding encoding = new DictionaryEncoding(dictionaryId, false, new ArrowType.Int(32, true));
+        return new Field(name, new FieldType(true, new ArrowType.Int(32, true), encoding), null);
+    }
+
+    private static long toMicros(LocalDateTime date) {
+        return Math.addExact(Math.multiplyExact(date.toEpochSecond(ZoneOffset.UTC), 1_000_000L), date.getNano() / 1_000);
+    }
+
+    /**
+     * The index vector of a dictionary encoded column and the dictionary it points into.
+     */
+    private static final class DictionaryColumn {
+
+        private final IntVector indexes;
+        private final VarCharVector values;
+        private final Dictionary dictionary;
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private DictionaryColumn(VectorSchemaRoot root, String name) {
+            Field field = root.getSchema().findField(name);
+            this.indexes = (IntVector) root.getVector(name);
+            this.values = new VarCharVector(name, indexes.getAllocator());
+            this.values.allocateNew();
+            this.values.setValueCount(0);
+            this.dictionary = new Dictionary(values, field.getDictionary());
+        }
+
+        private void setSafe(int row, String value) {
+            if (value == null) {
+                indexes.setNull(row);
+                return;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = codes.size();
+                values.setSafe(code, value.getBytes(StandardCharsets.UTF_8));
+                values.setValueCount(code + 1);
+                codes.put(value, code);
+            }
+            indexes.setSafe(row, code);
+        }
+
+        private void close() {
+            values.close();
+        }
+    }
+
+    // The writer closes its channel, and the caller owns the response stream
+    private static final class DiscardableOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private boolean discarding;
+
+        private DiscardableOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        private void discard() {
+            discarding = true;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!discarding) {
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!discarding) {
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!discarding) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
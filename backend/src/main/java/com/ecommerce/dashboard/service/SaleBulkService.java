@@ -0,0 +1,206 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.BulkOperationResultDTO;
+import com.ecommerce.dashboard.dto.BulkSaleRequest;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.repository.ProductRepository;
+import com.ecommerce.dashboard.repository.SaleRepository;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Set-based deletes and updates over many sales. Matching ids are taken in chunks of
+ * at most {@code sales.bulk.max-chunk-size}, and each chunk is changed with a single
+ * statement in its own transaction, so row locks are held only for one chunk. The
+ * search index and customer sketches are updated once a chunk has committed.
+ */
+@Service
+public class SaleBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleBulkService.class);
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ShardedSaleRepository shardedSaleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Autowired
+    private CustomerSketchService customerSketchService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sales.bulk.chunk-size}")
+    private int defaultChunkSize;
+
+    @Value("${sales.bulk.max-chunk-size}")
+    private int maxChunkSize;
+
+    @Value("${sales.bulk.max-ids}")
+    private int maxIds;
+
+    public int getMaxIds() {
+        return maxIds;
+    }
+
+    public BulkOperationResultDTO delete(BulkSaleRequest request) {
+        return forEachChunk("delete", request, ids -> {
+            int deleted = saleRepository.deleteByIds(ids);
+            return new ChunkResult(deleted, () -> ids.forEach(searchService::removeSale));
+        });
+    }
+
+    public BulkOperationResultDTO update(BulkSaleRequest request) {
+        Product product = null;
+        if (request.getTargetProductId() != null) {
+            product = productRepository.findById(request.getTargetProductId())
+                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + request.getTargetProductId()));
+        }
+        // Bulk statements bypass the entity listener that registers new names
+        dictionaryService.regions().register(request.getTargetRegion());
+        dictionaryService.paymentMethods().register(request.getTargetPaymentMethod());
+
+        Product targetProduct = product;
+        String statement = updateStatement(request);
+        return forEachChunk("update", request, ids -> {
+            Query update = entityManager.createQuery(statement).setParameter("ids", ids);
+            if (targetProduct != null) {
+                update.setParameter("product", targetProduct);
+            }
+            if (request.getTargetRegion() != null) {
+                update.setParameter("region", request.getTargetRegion());
+            }
+            if (request.getTargetPaymentMethod() != null) {
+                update.setParameter("paymentMethod", request.getTargetPaymentMethod());
+            }
+            if (request.getAmountFactor() != null) {
+                update.setParameter("amountFactor", request.getAmountFactor());
+            }
+            int updated = update.executeUpdate();
+
+            List<Sale> updatedSales = saleRepository.findAllById(ids);
+            return new ChunkResult(updated, () -> updatedSales.forEach(sale -> {
+                customerSketchService.recordSale(sale);
+                searchService.indexSale(sale);
+            }));
+        });
+    }
+
+    private String updateStatement(BulkSaleRequest request) {
+        List<String> assignments = new ArrayList<>();
+        if (request.getTargetProductId() != null) {
+            assignments.add("s.product = :product");
+        }
+        if (request.getTargetRegion() != null) {
+            assignments.add("s.region = :region");
+        }
+        if (request.getTargetPaymentMethod() != null) {
+            assignments.add("s.paymentMethod = :paymentMethod");
+        }
+        if (request.getAmountFactor() != null) {
+            // Amounts stay whole minor units, see Money
+            assignments.add("s.totalAmountMinor = CAST(ROUND(s.totalAmountMinor * CAST(:amountFactor AS Double), 0) AS Long)");
+        }
+        // Edits based on an earlier version then conflict, as they do after a single update
+        assignments.add("s.version = s.version + 1");
+        return "UPDATE Sale s SET " + String.join(", ", assignments) + " WHERE s.id IN :ids";
+    }
+
+    /**
+     * Applies the operation to the requested ids, or to the ids matching the filter, one
+     * chunk per transaction. Filter matches are read in id order after the last id of the
+     * previous chunk, so rows an update moves out of or into the filter are not revisited.
+     */
+    private BulkOperationResultDTO forEachChunk(String operation, BulkSaleRequest request, Function<List<Long>, ChunkResult> chunkOperation) {
+        if (shardedSaleRepository.isEnabled()) {
+            throw new RuntimeException("Bulk " + operation + " is not supported when sales are sharded");
+        }
+        long start = System.nanoTime();
+        int chunkSize = request.getChunkSize() != null
+            ? Math.max(1, Math.min(request.getChunkSize(), maxChunkSize))
+            : defaultChunkSize;
+
+        long affected = 0;
+        int chunks = 0;
+        if (request.hasIds()) {
+            List<Long> ids = request.getIds().stream().distinct().sorted().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                ChunkResult result = transactionTemplate.execute(status -> chunkOperation.apply(chunk));
+                affected += result.affected();
+                afterCommit(operation, result);
+                chunks++;
+            }
+        } else {
+            long afterId = 0;
+            while (true) {
+                long after = afterId;
+                ChunkResult[] result = new ChunkResult[1];
+                List<Long> chunk = transactionTemplate.execute(status -> {
+                    List<Long> ids = saleRepository.findIdsAfter(after, request.getStartDate(), request.getEndDate(),
+                            request.getProductId(), request.getRegion(), PageRequest.of(0, chunkSize));
+                    if (!ids.isEmpty()) {
+                        result[0] = chunkOperation.apply(ids);
+                    }
+                    return ids;
+                });
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                affected += result[0].affected();
+                afterCommit(operation, result[0]);
+                chunks++;
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        }
+
+        if (affected > 0) {
+            eventPublisher.publishEvent(new SaleChangedEvent((int) Math.min(affected, Integer.MAX_VALUE)));
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Bulk {} affected {} sales in {} chunks in {} ms", operation, affected, chunks, elapsedMs);
+        return new BulkOperationResultDTO(affected, chunks, elapsedMs);
+    }
+
+    // The chunk is committed, so a failure here must not fail the remaining chunks
+    private void afterCommit(String operation, ChunkResult result) {
+        try {
+            result.afterCommit().run();
+        } catch (RuntimeException e) {
+            logger.error("Failed to index sales after bulk {}: {}", operation, e.getMessage());
+        }
+    }
+
+    private record ChunkResult(int affected, Runnable afterCommit) {
+    }
+}
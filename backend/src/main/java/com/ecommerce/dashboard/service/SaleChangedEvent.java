@@ -0,0 +1,7 @@
+package com.ecommerce.dashboard.service;
+
+/**
+ * Published after sales are created, updated or deleted.
+ */
+public record SaleChangedEvent(int count) {
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.entity.Sale;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes sales in a columnar file format with the same columns as the CSV export. The
+ * target stream is left open. Not thread-safe.
+ */
+public interface SaleColumnarEncoder extends Closeable {
+
+    void write(Sale sale) throws IOException;
+
+    /**
+     * Writes the remaining rows and the end of the file. An encoder closed without it
+     * writes nothing more.
+     */
+    void finish() throws IOException;
+}
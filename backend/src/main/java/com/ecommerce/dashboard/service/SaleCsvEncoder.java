@@ -0,0 +1,265 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.util.Money;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes sales as UTF-8 CSV straight into a reusable byte buffer.
+ * <p>
+ * The output is byte-identical to opencsv's {@code CSVWriter} defaults: every non-null
+ * field is quoted, embedded quotes are doubled, null fields are left empty and rows end
+ * with {@code \n}. Numbers and dates are formatted by hand, and the encoded bytes of the
+ * low-cardinality product, category, region and payment strings are cached, so a row
+ * does not allocate in the common case. Not thread-safe.
+ */
+public class SaleCsvEncoder {
+
+    private static final String[] HEADER = {"ID", "Product", "Category", "Quantity", "Total Amount",
+                                            "Sale Date", "Customer", "Region", "Payment Method"};
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final int MAX_CACHED_FIELDS = 4096;
+
+    private final Map<String, byte[]> fieldCache = new HashMap<>();
+    private final byte[] buffer;
+    private final byte[] digits = new byte[20];
+    private int position;
+    private OutputStream out;
+
+    public SaleCsvEncoder(OutputStream out) {
+        this(out, 64 * 1024);
+    }
+
+    public SaleCsvEncoder(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Points the encoder at a new stream, keeping the field cache. Flush before calling.
+     */
+    public void reset(OutputStream out) {
+        this.out = out;
+        this.position = 0;
+    }
+
+    public void writeHeader() throws IOException {
+        for (int i = 0; i < HEADER.length; i++) {
+            if (i > 0) {
+                put((byte) ',');
+            }
+            writeCachedField(HEADER[i]);
+        }
+        put((byte) '\n');
+    }
+
+    public void write(Sale sale) throws IOException {
+        writeLongField(sale.getId());
+        put((byte) ',');
+        writeCachedField(sale.getProduct().getName());
+        put((byte) ',');
+        writeCachedField(sale.getProduct().getCategory());
+        put((byte) ',');
+        writeLongField(sale.getQuantity());
+        put((byte) ',');
+        writeAmountField(sale.getTotalAmountMinor());
+        put((byte) ',');
+        writeDateField(sale.getSaleDate());
+        put((byte) ',');
+        writeStringField(sale.getCustomerName());
+        put((byte) ',');
+        writeCachedField(sale.getRegion());
+        put((byte) ',');
+        writeCachedField(sale.getPaymentMethod());
+        put((byte) '\n');
+    }
+
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        out.flush();
+    }
+
+    private void writeCachedField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        byte[] encoded = fieldCache.get(value);
+        if (encoded == null) {
+            encoded = encodeField(value);
+            if (fieldCache.size() < MAX_CACHED_FIELDS) {
+                fieldCache.put(value, encoded);
+            }
+        }
+        put(encoded);
+    }
+
+    private void writeStringField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put((byte) '"');
+                put((byte) '"');
+            } else if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xC0 | (c >> 6)));
+                put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                int codePoint = Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))
+                        ? Character.toCodePoint(c, value.charAt(++i))
+                        : -1;
+                if (codePoint < 0) {
+                    // Unpaired surrogate, replaced the same way String.getBytes does
+                    put((byte) '?');
+                } else {
+                    put((byte) (0xF0 | (codePoint >> 18)));
+                    put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    put((byte) (0x80 | (codePoint & 0x3F)));
+                }
+            } else {
+                put((byte) (0xE0 | (c >> 12)));
+                put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        put((byte) '"');
+    }
+
+    private void writeLongField(Number value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        put((byte) '"');
+        writeLong(value.longValue());
+        put((byte) '"');
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (length > 0) {
+            put(digits[--length]);
+        }
+    }
+
+    /**
+     * Writes minor units as a plain decimal with one or two fraction digits, the way
+     * {@link Double#toString} printed amounts when they were stored as doubles.
+     */
+    private void writeAmountField(long minorUnits) throws IOException {
+        put((byte) '"');
+        if (minorUnits == Long.MIN_VALUE) {
+            writeAscii(Money.format(minorUnits));
+        } else {
+            if (minorUnits < 0) {
+                put((byte) '-');
+                minorUnits = -minorUnits;
+            }
+            writeLong(minorUnits / 100);
+            put((byte) '.');
+            int fraction = (int) (minorUnits % 100);
+            put((byte) ('0' + fraction / 10));
+            if (fraction % 10 != 0) {
+                put((byte) ('0' + fraction % 10));
+            }
+        }
+        put((byte) '"');
+    }
+
+    private void writeDateField(LocalDateTime date) throws IOException {
+        if (date == null) {
+            return;
+        }
+        put((byte) '"');
+        int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            writeAscii(date.format(DATE_FORMAT));
+        } else {
+            putTwoDigits(year / 100);
+            putTwoDigits(year % 100);
+            put((byte) '-');
+            putTwoDigits(date.getMonthValue());
+            put((byte) '-');
+            putTwoDigits(date.getDayOfMonth());
+            put((byte) ' ');
+            putTwoDigits(date.getHour());
+            put((byte) ':');
+            putTwoDigits(date.getMinute());
+            put((byte) ':');
+            putTwoDigits(date.getSecond());
+        }
+        put((byte) '"');
+    }
+
+    private void putTwoDigits(int value) throws IOException {
+        put((byte) ('0' + value / 10));
+        put((byte) ('0' + value % 10));
+    }
+
+    private void writeAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            put((byte) value.charAt(i));
+        }
+    }
+
+    private byte[] encodeField(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                quoted.append('"');
+            }
+            quoted.append(c);
+        }
+        return quoted.append('"').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void put(byte b) throws IOException {
+        if (position == buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        buffer[position++] = b;
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            out.write(buffer, 0, position);
+            position = 0;
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+}
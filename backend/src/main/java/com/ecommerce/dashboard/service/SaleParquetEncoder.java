@@ -0,0 +1,305 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.entity.Sale;
+import com.github.luben.zstd.Zstd;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes sales as a Parquet file straight to a stream. Rows are buffered per column until
+ * the row group reaches {@code rowGroupSize} bytes, then the group is dictionary encoded,
+ * zstd compressed and written out. Amounts are DECIMAL(18,2) and sale dates are local
+ * timestamps in microseconds.
+ * <p>
+ * Hadoop is only on the classpath for the Parquet API signatures. The configuration and
+ * codecs used here do not touch it.
+ */
+public class SaleParquetEncoder implements SaleColumnarEncoder {
+
+    static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.INT64).named("id")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("product")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("category")
+            .required(PrimitiveTypeName.INT32).named("quantity")
+            .required(PrimitiveTypeName.INT64).as(LogicalTypeAnnotation.decimalType(2, 18)).named("total_amount")
+            .required(PrimitiveTypeName.INT64)
+                .as(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS)).named("sale_date")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("customer")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("region")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("payment_method")
+            .named("sale");
+
+    private final ParquetWriter<Sale> writer;
+
+    public SaleParquetEncoder(OutputStream out, long rowGroupSize) throws IOException {
+        this.writer = new Builder(new StreamOutputFile(out))
+                .withConf(new PlainParquetConfiguration())
+                .withCodecFactory(new ZstdCodecFactory())
+                .withCompressionCodec(CompressionCodecName.ZSTD)
+                .withDictionaryEncoding(true)
+                // Ids are unique, so their dictionary would only be built to be dropped
+                .withDictionaryEncoding("id", false)
+                .withRowGroupSize(rowGroupSize)
+                .build();
+    }
+
+    @Override
+    public void write(Sale sale) throws IOException {
+        writer.write(sale);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.close();
+    }
+
+    @Override
+    public void close() {
+        // Unfinished row groups are on the heap; dropping the writer drops them
+    }
+
+    private static final class SaleWriteSupport extends WriteSupport<Sale> {
+
+        private static final int MAX_CACHED_VALUES = 4096;
+
+        private final Map<String, Binary> binaries = new HashMap<>();
+        private RecordConsumer consumer;
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(SCHEMA, Map.of());
+        }
+
+        // Still abstract in WriteSupport; the writer calls the ParquetConfiguration variant
+        @Deprecated
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(SCHEMA, Map.of());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(Sale sale) {
+            consumer.startMessage();
+            consumer.startField("id", 0);
+            consumer.addLong(sale.getId());
+            consumer.endField("id", 0);
+            writeString("product", 1, sale.getProduct().getName(), true);
+            writeString("category", 2, sale.getProduct().getCategory(), true);
+            consumer.startField("quantity", 3);
+            consumer.addInteger(sale.getQuantity());
+            consumer.endField("quantity", 3);
+            consumer.startField("total_amount", 4);
+            consumer.addLong(sale.getTotalAmountMinor());
+            consumer.endField("total_amount", 4);
+            consumer.startField("sale_date", 5);
+            consumer.addLong(toMicros(sale.getSaleDate()));
+            consumer.endField("sale_date", 5);
+            writeString("customer", 6, sale.getCustomerName(), false);
+            writeString("region", 7, sale.getRegion(), true);
+            writeString("payment_method", 8, sale.getPaymentMethod(), true);
+            consumer.endMessage();
+        }
+
+        private void writeString(String field, int index, String value, boolean cached) {
+            if (value == null) {
+                return;
+            }
+            Binary binary = cached ? binaries.get(value) : null;
+            if (binary == null) {
+                binary = Binary.fromConstantByteArray(value.getBytes(StandardCharsets.UTF_8));
+                if (cached && binaries.size() < MAX_CACHED_VALUES) {
+                    binaries.put(value, binary);
+                }
+            }
+            consumer.startField(field, index);
+            consumer.addBinary(binary);
+            consumer.endField(field, index);
+        }
+
+        private static long toMicros(LocalDateTime date) {
+            return Math.addExact(Math.multiplyExact(date.toEpochSecond(ZoneOffset.UTC), 1_000_000L), date.getNano() / 1_000);
+        }
+    }
+
+    private static final class Builder extends ParquetWriter.Builder<Sale, Builder> {
+
+        private Builder(OutputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<Sale> getWriteSupport(ParquetConfiguration configuration) {
+            return new SaleWriteSupport();
+        }
+
+        // Still abstract in ParquetWriter.Builder; build() calls the ParquetConfiguration variant
+        @Deprecated
+        @Override
+        protected WriteSupport<Sale> getWriteSupport(Configuration configuration) {
+            return new SaleWriteSupport();
+        }
+    }
+
+    /**
+     * An append-only file over the response stream. Closing it only flushes, the caller
+     * owns the stream.
+     */
+    private static final class StreamOutputFile implements OutputFile {
+
+        private final OutputStream out;
+
+        private StreamOutputFile(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+
+    /**
+     * Zstd pages through zstd-jni directly. Parquet's own codecs go through Hadoop's.
+     */
+    static final class ZstdCodecFactory implements CompressionCodecFactory {
+
+        private static final int LEVEL = 3;
+
+        @Override
+        public BytesInputCompressor getCompressor(CompressionCodecName codecName) {
+            requireZstd(codecName);
+            return new BytesInputCompressor() {
+                @Override
+                public BytesInput compress(BytesInput bytes) throws IOException {
+                    return BytesInput.from(Zstd.compress(toByteArray(bytes), LEVEL));
+                }
+
+                @Override
+                public CompressionCodecName getCodecName() {
+                    return CompressionCodecName.ZSTD;
+                }
+
+                @Override
+                public void release() {
+                }
+            };
+        }
+
+        @Override
+        public BytesInputDecompressor getDecompressor(CompressionCodecName codecName) {
+            requireZstd(codecName);
+            return new BytesInputDecompressor() {
+                @Override
+                public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+                    return BytesInput.from(Zstd.decompress(toByteArray(bytes), uncompressedSize));
+                }
+
+                @Override
+                public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize)
+                        throws IOException {
+                    byte[] compressed = new byte[compressedSize];
+                    input.get(compressed);
+                    output.put(Zstd.decompress(compressed, uncompressedSize));
+                }
+
+                @Override
+                public void release() {
+                }
+            };
+        }
+
+        @Override
+        public void release() {
+        }
+
+        private static void requireZstd(CompressionCodecName codecName) {
+            if (codecName != CompressionCodecName.ZSTD) {
+                throw new UnsupportedOperationException("Unsupported Parquet codec: " + codecName);
+            }
+        }
+
+        // BytesInput.toByteArray() is deprecated, and writeAllTo() does the same copy
+        private static byte[] toByteArray(BytesInput bytes) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.toIntExact(bytes.size()));
+            bytes.writeAllTo(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -1,40 +1,194 @@
 package com.ecommerce.dashboard.service;
 
 import com.ecommerce.dashboard.dto.CreateSaleRequest;
+import com.ecommerce.dashboard.dto.PatchSaleRequest;
+import com.ecommerce.dashboard.dto.PendingSaleDTO;
 import com.ecommerce.dashboard.dto.SaleDTO;
+import com.ecommerce.dashboard.dto.SaleFilter;
 import com.ecommerce.dashboard.entity.Product;
 import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.monitoring.SaleOperationEvent;
 import com.ecommerce.dashboard.repository.ProductRepository;
 import com.ecommerce.dashboard.repository.SaleRepository;
-import com.opencsv.CSVWriter;
+import com.ecommerce.dashboard.repository.SaleSpecifications;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
+import com.ecommerce.dashboard.util.CountingOutputStream;
+import com.ecommerce.dashboard.util.Money;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import java.io.StringWriter;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class SaleService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SaleService.class);
+
+    private static final ThreadLocal<CsvChunkBuffer> CSV_CHUNK_BUFFER = ThreadLocal.withInitial(CsvChunkBuffer::new);
+
     @Autowired
     private SaleRepository saleRepository;
 
+    @Autowired
+    private ShardedSaleRepository shardedSaleRepository;
+
     @Autowired
     private ProductRepository productRepository;
 
-    public Page<SaleDTO> getSales(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-        if (startDate != null && endDate != null) {
-            return saleRepository.findBySaleDateBetween(startDate, endDate, pageable)
-                    .map(this::convertToDTO);
-        }
-        return saleRepository.findAll(pageable).map(this::convertToDTO);
+    @Autowired
+    private CustomerSketchService customerSketchService;
+
+    @Autowired
+    private SaleWriteBehindQueue writeBehindQueue;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${export.parallel.threads}")
+    private int exportThreads;
+
+    @Value("${export.parallel.chunks}")
+    private int exportChunks;
+
+    @Value("${export.columnar.batch-rows}")
+    private int columnarBatchRows;
+
+    @Value("${export.parquet.row-group-size}")
+    private long parquetRowGroupSize;
+
+    @Value("${sales.idempotency.cache-ttl-minutes}")
+    private long idempotencyCacheTtlMinutes;
+
+    @Value("${sales.idempotency.cache-max-entries}")
+    private long idempotencyCacheMaxEntries;
+
+    private ThreadPoolExecutor exportExecutor;
+
+    private Cache<String, SaleDTO> salesByIdempotencyKey;
+
+    @PostConstruct
+    private void createIdempotencyCache() {
+        salesByIdempotencyKey = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(idempotencyCacheTtlMinutes))
+                .maximumSize(idempotencyCacheMaxEntries)
+                .build();
+    }
+
+    @PostConstruct
+    private void startExportExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        exportExecutor = new ThreadPoolExecutor(
+            exportThreads, exportThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(exportThreads * 4),
+            runnable -> {
+                Thread thread = new Thread(runnable, "sale-export-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWriteBehind() {
+        writeBehindQueue.start(this::persistQueuedSales);
+    }
+
+    @PreDestroy
+    private void stopExportExecutor() {
+        exportExecutor.shutdownNow();
+    }
+
+    public Page<SaleDTO> getSales(SaleFilter filter, Pageable pageable) {
+        SaleOperationEvent event = new SaleOperationEvent();
+        event.begin();
+        Page<Sale> sales = shardedSaleRepository.isEnabled()
+            ? shardedSaleRepository.findAll(filter, pageable)
+            : saleRepository.findAll(SaleSpecifications.matching(filter), pageable);
+        long conversionStart = System.nanoTime();
+        Page<SaleDTO> page = sales.map(this::convertToDTO);
+        event.setConversionTime(System.nanoTime() - conversionStart);
+        event.setOperation("getSales");
+        event.setRows(page.getNumberOfElements());
+        event.commit();
+        return page;
+    }
+
+    public void exportSalesToCSV(LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        recordExport("exportCsv", out, target -> writeCsv(startDate, endDate, target));
     }
 
-    public String exportSalesToCSV(LocalDateTime startDate, LocalDateTime endDate) {
+    private long writeCsv(LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        if (shardedSaleRepository.isEnabled()) {
+            SaleCsvEncoder encoder = new SaleCsvEncoder(out);
+            encoder.writeHeader();
+            boolean ranged = startDate != null && endDate != null;
+            Iterator<Sale> sales = shardedSaleRepository.iterateInDateOrder(ranged ? startDate : null, ranged ? endDate : null);
+            long rows = 0;
+            while (sales.hasNext()) {
+                encoder.write(sales.next());
+                rows++;
+            }
+            encoder.flush();
+            return rows;
+        }
+
         List<Sale> sales;
         if (startDate != null && endDate != null) {
             sales = saleRepository.findBySaleDateBetween(startDate, endDate);
@@ -42,86 +196,480 @@ public class SaleService {
             sales = saleRepository.findAll();
         }
 
+        SaleCsvEncoder encoder = new SaleCsvEncoder(out);
+        encoder.writeHeader();
+        for (Sale sale : sales) {
+            encoder.write(sale);
+        }
+        encoder.flush();
+        return sales.size();
+    }
+
+    /**
+     * Exports the same rows as {@link #exportSalesToCSV} ordered by sale date. The date range is
+     * split into chunks that are read on separate connections and formatted on the export pool,
+     * then written to the stream in order. With gzip each chunk is compressed as its own gzip
+     * member, and the concatenation is still a valid gzip file.
+     */
+    public void exportSalesToCSVParallel(LocalDateTime startDate, LocalDateTime endDate, boolean gzip, OutputStream out)
+            throws IOException {
+        recordExport(gzip ? "exportCsvGzip" : "exportCsv", out, target -> writeCsvParallel(startDate, endDate, gzip, target));
+    }
+
+    private long writeCsvParallel(LocalDateTime startDate, LocalDateTime endDate, boolean gzip, OutputStream out)
+            throws IOException {
+        out.write(encodeCsvChunk(List.of(), true, gzip));
+        List<LocalDateTime> bounds = exportChunkBounds(startDate, endDate);
+        Deque<CompletableFuture<byte[]>> inFlight = new ArrayDeque<>();
+        LongAdder rows = new LongAdder();
+        int next = 0;
         try {
-            StringWriter stringWriter = new StringWriter();
-            CSVWriter csvWriter = new CSVWriter(stringWriter);
+            while (next < bounds.size() - 1 || !inFlight.isEmpty()) {
+                while (next < bounds.size() - 1 && inFlight.size() < exportThreads * 2) {
+                    LocalDateTime chunkFrom = bounds.get(next);
+                    LocalDateTime chunkTo = bounds.get(next + 1);
+                    inFlight.add(CompletableFuture.supplyAsync(() -> {
+                        List<Sale> chunk = findExportChunk(chunkFrom, chunkTo);
+                        rows.add(chunk.size());
+                        return encodeCsvChunk(chunk, false, gzip);
+                    }, exportExecutor));
+                    next++;
+                }
+                out.write(inFlight.poll().join());
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        out.flush();
+        return rows.sum();
+    }
 
-            // Write header
-            String[] header = {"ID", "Product", "Category", "Quantity", "Total Amount",
-                             "Sale Date", "Customer", "Region", "Payment Method"};
-            csvWriter.writeNext(header);
+    public void exportSalesToParquet(LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        recordExport("exportParquet", out,
+            target -> exportSalesColumnar(startDate, endDate, new SaleParquetEncoder(target, parquetRowGroupSize)));
+    }
 
-            // Write data
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            for (Sale sale : sales) {
-                String[] data = {
-                    sale.getId().toString(),
-                    sale.getProduct().getName(),
-                    sale.getProduct().getCategory(),
-                    sale.getQuantity().toString(),
-                    sale.getTotalAmount().toString(),
-                    sale.getSaleDate().format(formatter),
-                    sale.getCustomerName(),
-                    sale.getRegion(),
-                    sale.getPaymentMethod()
-                };
-                csvWriter.writeNext(data);
+    public void exportSalesToArrow(LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        recordExport("exportArrow", out,
+            target -> exportSalesColumnar(startDate, endDate, new SaleArrowEncoder(target, columnarBatchRows)));
+    }
+
+    /**
+     * Runs an export, recording its rows and the bytes it wrote as a {@link SaleOperationEvent}.
+     * The stream is only wrapped for counting while the event is enabled.
+     */
+    private void recordExport(String operation, OutputStream out, Export export) throws IOException {
+        SaleOperationEvent event = new SaleOperationEvent();
+        if (!event.isEnabled()) {
+            export.write(out);
+            return;
+        }
+        CountingOutputStream counting = new CountingOutputStream(out);
+        event.begin();
+        long rows = export.write(counting);
+        event.setOperation(operation);
+        event.setRows(rows);
+        event.setBytesWritten(counting.getCount());
+        event.commit();
+    }
+
+    /**
+     * Encodes the same rows as {@link #exportSalesToCSVParallel}, in order, one chunk at a time.
+     * The next chunk is read on the export pool while the current one is encoded, so at most
+     * two chunks are held in memory.
+     */
+    private long exportSalesColumnar(LocalDateTime startDate, LocalDateTime endDate, SaleColumnarEncoder encoder)
+            throws IOException {
+        long rows = 0;
+        try (encoder) {
+            List<LocalDateTime> bounds = exportChunkBounds(startDate, endDate);
+            CompletableFuture<List<Sale>> next = null;
+            try {
+                for (int i = 0; i < bounds.size() - 1; i++) {
+                    CompletableFuture<List<Sale>> current = next != null ? next : readExportChunk(bounds, i);
+                    next = i + 2 < bounds.size() ? readExportChunk(bounds, i + 1) : null;
+                    List<Sale> sales = current.join();
+                    for (Sale sale : sales) {
+                        encoder.write(sale);
+                    }
+                    rows += sales.size();
+                }
+            } finally {
+                if (next != null) {
+                    next.cancel(true);
+                }
             }
+            encoder.finish();
+        }
+        return rows;
+    }
+
+    private CompletableFuture<List<Sale>> readExportChunk(List<LocalDateTime> bounds, int chunk) {
+        return CompletableFuture.supplyAsync(() -> findExportChunk(bounds.get(chunk), bounds.get(chunk + 1)), exportExecutor);
+    }
+
+    /**
+     * Half-open chunk bounds covering the export range, or the whole table when a bound is
+     * missing. Empty when there is nothing to export.
+     */
+    private List<LocalDateTime> exportChunkBounds(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime from = startDate;
+        LocalDateTime to = endDate;
+        if (from == null || to == null) {
+            from = shardedSaleRepository.isEnabled() ? shardedSaleRepository.findMinSaleDate() : saleRepository.findMinSaleDate();
+            to = shardedSaleRepository.isEnabled() ? shardedSaleRepository.findMaxSaleDate() : saleRepository.findMaxSaleDate();
+        }
+        if (from == null || to == null || from.isAfter(to)) {
+            return List.of();
+        }
+        // BETWEEN is inclusive, chunks are half-open
+        return splitRange(from, to.plusNanos(1), exportChunks);
+    }
+
+    private List<Sale> findExportChunk(LocalDateTime from, LocalDateTime to) {
+        return shardedSaleRepository.isEnabled()
+            ? shardedSaleRepository.findExportChunk(from, to)
+            : saleRepository.findExportChunk(from, to);
+    }
 
-            csvWriter.close();
-            return stringWriter.toString();
-        } catch (Exception e) {
+    private List<LocalDateTime> splitRange(LocalDateTime from, LocalDateTime to, int chunks) {
+        Duration step = Duration.between(from, to).dividedBy(chunks);
+        List<LocalDateTime> bounds = new ArrayList<>(chunks + 1);
+        bounds.add(from);
+        for (int i = 1; i < chunks && !step.isZero(); i++) {
+            bounds.add(from.plus(step.multipliedBy(i)));
+        }
+        bounds.add(to);
+        return bounds;
+    }
+
+    private byte[] encodeCsvChunk(List<Sale> sales, boolean header, boolean gzip) {
+        CsvChunkBuffer chunk = CSV_CHUNK_BUFFER.get();
+        chunk.bytes.reset();
+        try {
+            OutputStream target = gzip ? new GZIPOutputStream(chunk.bytes) : chunk.bytes;
+            chunk.encoder.reset(target);
+            if (header) {
+                chunk.encoder.writeHeader();
+            }
+            for (Sale sale : sales) {
+                chunk.encoder.write(sale);
+            }
+            chunk.encoder.flush();
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+            return chunk.bytes.toByteArray();
+        } catch (IOException e) {
             throw new RuntimeException("Failed to export CSV", e);
+        } finally {
+            // Pool threads live as long as the process, so a buffer grown by one large chunk is dropped
+            if (chunk.bytes.size() > CsvChunkBuffer.MAX_RETAINED_SIZE) {
+                CSV_CHUNK_BUFFER.remove();
+            }
         }
     }
 
     public SaleDTO getSaleById(Long id) {
-        Sale sale = saleRepository.findById(id)
+        Sale sale = findSale(id)
                 .orElseThrow(() -> new RuntimeException("Sale not found with id: " + id));
         return convertToDTO(sale);
     }
 
     public SaleDTO createSale(CreateSaleRequest request) {
+        return createSale(request, null);
+    }
+
+    /**
+     * Creates a sale once per idempotency key of the current user. If a sale with the key
+     * already exists, including one inserted concurrently, that sale is returned instead.
+     *
+     * @throws IdempotencyKeyConflictException if the key was used for a different request
+     */
+    public SaleDTO createSale(CreateSaleRequest request, String idempotencyKey) {
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + request.getProductId()));
 
-        Sale sale = new Sale();
-        sale.setProduct(product);
-        sale.setQuantity(request.getQuantity());
-        sale.setTotalAmount(request.getTotalAmount());
-        sale.setSaleDate(request.getSaleDate());
-        sale.setCustomerName(request.getCustomerName());
-        sale.setRegion(request.getRegion());
-        sale.setPaymentMethod(request.getPaymentMethod());
+        String storedKey = idempotencyKey != null ? storedIdempotencyKey(idempotencyKey) : null;
+        registerNames(request);
+        Sale sale = toSale(product, request);
+        sale.setIdempotencyKey(storedKey);
+
+        Sale savedSale;
+        try {
+            if (shardedSaleRepository.isEnabled()) {
+                // Each shard only enforces its own keys. Identical requests route to the same
+                // shard, so concurrent retries still collide there; only different requests
+                // reusing a key at the same moment can both be stored.
+                Optional<SaleDTO> existing = storedKey != null ? findByStoredKey(storedKey) : Optional.empty();
+                if (existing.isPresent()) {
+                    return replayed(existing.get(), request);
+                }
+                savedSale = shardedSaleRepository.save(sale);
+            } else {
+                savedSale = saleRepository.save(sale);
+            }
+        } catch (DataIntegrityViolationException e) {
+            if (storedKey == null) {
+                throw e;
+            }
+            return replayed(findByStoredKey(storedKey).orElseThrow(() -> e), request);
+        }
+        customerSketchService.recordSale(savedSale);
+        searchService.indexSale(savedSale);
+        eventPublisher.publishEvent(new SaleChangedEvent(1));
+
+        SaleDTO createdSale = convertToDTO(savedSale);
+        if (storedKey != null) {
+            salesByIdempotencyKey.put(storedKey, createdSale);
+        }
+        return createdSale;
+    }
+
+    private SaleDTO replayed(SaleDTO existing, CreateSaleRequest request) {
+        if (!matchesRequest(existing, request)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used with a different request");
+        }
+        return existing;
+    }
+
+    /**
+     * Whether a stored sale was created from this request, so that a reused idempotency
+     * key can be told apart from a retry.
+     */
+    public boolean matchesRequest(SaleDTO sale, CreateSaleRequest request) {
+        return Objects.equals(sale.getProductId(), request.getProductId())
+                && Objects.equals(sale.getQuantity(), request.getQuantity())
+                && Money.toMinorUnits(sale.getTotalAmount()) == Money.toMinorUnits(request.getTotalAmount())
+                && Objects.equals(sale.getSaleDate(), request.getSaleDate())
+                && Objects.equals(sale.getCustomerName(), request.getCustomerName())
+                && Objects.equals(sale.getRegion(), request.getRegion())
+                && Objects.equals(sale.getPaymentMethod(), request.getPaymentMethod());
+    }
+
+    // Outside any transaction, see DictionaryListener
+    private void registerNames(CreateSaleRequest request) {
+        dictionaryService.regions().register(request.getRegion());
+        dictionaryService.paymentMethods().register(request.getPaymentMethod());
+    }
 
-        Sale savedSale = saleRepository.save(sale);
-        return convertToDTO(savedSale);
+    /**
+     * Finds the sale created with this idempotency key by the current user.
+     */
+    public Optional<SaleDTO> findByIdempotencyKey(String idempotencyKey) {
+        return findByStoredKey(storedIdempotencyKey(idempotencyKey));
+    }
+
+    private Optional<SaleDTO> findByStoredKey(String storedKey) {
+        SaleDTO cachedSale = salesByIdempotencyKey.getIfPresent(storedKey);
+        if (cachedSale != null) {
+            return Optional.of(cachedSale);
+        }
+
+        Optional<Sale> stored = shardedSaleRepository.isEnabled()
+            ? shardedSaleRepository.findByIdempotencyKey(storedKey)
+            : saleRepository.findByIdempotencyKey(storedKey);
+        Optional<SaleDTO> sale = stored.map(this::convertToDTO);
+        sale.ifPresent(dto -> salesByIdempotencyKey.put(storedKey, dto));
+        return sale;
+    }
+
+    /**
+     * Keys are chosen by clients, so each user gets their own: the stored key is the
+     * SHA-256 of the username and key, which also fits the 64-character column.
+     */
+    private static String storedIdempotencyKey(String idempotencyKey) {
+        String owner = currentUsername();
+        String scoped = (owner == null ? "" : owner.length() + ":" + owner) + ":" + idempotencyKey;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(scoped.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    public boolean isWriteBehindEnabled() {
+        return writeBehindQueue.isEnabled();
+    }
+
+    /**
+     * Validates the sale and hands it to the write-behind queue.
+     *
+     * @return the queued sale, or null if the queue is full
+     * @throws IdempotencyKeyConflictException if the key is queued by another user or
+     *         with a different request
+     */
+    public PendingSaleDTO enqueueSale(CreateSaleRequest request, String idempotencyKey) {
+        if (productRepository.findById(request.getProductId()).isEmpty()) {
+            throw new RuntimeException("Product not found with id: " + request.getProductId());
+        }
+
+        String storedKey = idempotencyKey != null ? storedIdempotencyKey(idempotencyKey) : null;
+        long provisionalId = writeBehindQueue.enqueue(request, storedKey, currentUsername());
+        if (provisionalId < 0) {
+            return null;
+        }
+        return new PendingSaleDTO(provisionalId, "QUEUED");
+    }
+
+    /**
+     * Inserts a batch from the write-behind queue in a single transaction. Sales whose
+     * product was deleted after they were queued, or whose idempotency key is already
+     * stored, are dropped. Throws only if the transaction did not commit.
+     */
+    private void persistQueuedSales(List<SaleWriteBehindQueue.PendingSale> batch) {
+        batch.forEach(pending -> registerNames(pending.request()));
+        List<Sale> savedSales = transactionTemplate.execute(status -> {
+            Map<Long, Product> products = productRepository.findAllById(
+                    batch.stream().map(pending -> pending.request().getProductId()).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            List<String> idempotencyKeys = batch.stream()
+                .map(SaleWriteBehindQueue.PendingSale::idempotencyKey)
+                .filter(key -> key != null)
+                .toList();
+            Set<String> storedKeys = idempotencyKeys.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(shardedSaleRepository.isEnabled()
+                    ? shardedSaleRepository.findExistingIdempotencyKeys(idempotencyKeys)
+                    : saleRepository.findExistingIdempotencyKeys(idempotencyKeys));
+
+            List<Sale> sales = new ArrayList<>(batch.size());
+            for (SaleWriteBehindQueue.PendingSale pending : batch) {
+                if (pending.idempotencyKey() != null && !storedKeys.add(pending.idempotencyKey())) {
+                    continue;
+                }
+                Product product = products.get(pending.request().getProductId());
+                if (product == null) {
+                    logger.warn("Dropping queued sale {}: product {} no longer exists",
+                        pending.provisionalId(), pending.request().getProductId());
+                    continue;
+                }
+                Sale sale = toSale(product, pending.request());
+                sale.setIdempotencyKey(pending.idempotencyKey());
+                sales.add(sale);
+            }
+            return shardedSaleRepository.isEnabled() ? shardedSaleRepository.saveAll(sales) : saleRepository.saveAll(sales);
+        });
+
+        // Committed, so nothing below may throw and get the batch written again
+        for (Sale sale : savedSales) {
+            try {
+                if (sale.getIdempotencyKey() != null) {
+                    salesByIdempotencyKey.put(sale.getIdempotencyKey(), convertToDTO(sale));
+                }
+                customerSketchService.recordSale(sale);
+                searchService.indexSale(sale);
+            } catch (RuntimeException e) {
+                logger.error("Failed to index queued sale {}: {}", sale.getId(), e.getMessage());
+            }
+        }
+        try {
+            eventPublisher.publishEvent(new SaleChangedEvent(savedSales.size()));
+        } catch (RuntimeException e) {
+            logger.error("Failed to publish change of {} queued sales: {}", savedSales.size(), e.getMessage());
+        }
     }
 
     public SaleDTO updateSale(Long id, CreateSaleRequest request) {
-        Sale sale = saleRepository.findById(id)
+        Sale sale = findSale(id)
                 .orElseThrow(() -> new RuntimeException("Sale not found with id: " + id));
 
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + request.getProductId()));
 
+        registerNames(request);
         sale.setProduct(product);
         sale.setQuantity(request.getQuantity());
-        sale.setTotalAmount(request.getTotalAmount());
+        sale.setTotalAmountMinor(Money.toMinorUnits(request.getTotalAmount()));
         sale.setSaleDate(request.getSaleDate());
         sale.setCustomerName(request.getCustomerName());
         sale.setRegion(request.getRegion());
         sale.setPaymentMethod(request.getPaymentMethod());
 
-        Sale updatedSale = saleRepository.save(sale);
+        Sale updatedSale = shardedSaleRepository.isEnabled() ? shardedSaleRepository.save(sale) : saleRepository.save(sale);
+        customerSketchService.recordSale(updatedSale);
+        searchService.indexSale(updatedSale);
+        eventPublisher.publishEvent(new SaleChangedEvent(1));
+        return convertToDTO(updatedSale);
+    }
+
+    /**
+     * Changes only the fields present in the request, with one UPDATE that also checks and
+     * bumps the version, so nothing is read before the write. The sale is read back in the
+     * same transaction for the response and the indexes.
+     */
+    public SaleDTO patchSale(Long id, PatchSaleRequest request) {
+        if (shardedSaleRepository.isEnabled()) {
+            throw new RuntimeException("Partial updates are not supported when sales are sharded");
+        }
+        // Outside the transaction, see DictionaryListener
+        dictionaryService.regions().register(request.getRegion());
+        dictionaryService.paymentMethods().register(request.getPaymentMethod());
+
+        Sale updatedSale = transactionTemplate.execute(status -> {
+            Product product = null;
+            if (request.getProductId() != null) {
+                // Usually answered by the second-level cache
+                product = productRepository.findById(request.getProductId())
+                        .orElseThrow(() -> new RuntimeException("Product not found with id: " + request.getProductId()));
+            }
+            boolean updated = new PartialUpdate("Sale")
+                .set("product", product)
+                .set("quantity", request.getQuantity())
+                .set("totalAmountMinor", Money.toMinorUnits(request.getTotalAmount()))
+                .set("saleDate", request.getSaleDate())
+                .set("customerName", request.getCustomerName())
+                .set("region", request.getRegion())
+                .set("paymentMethod", request.getPaymentMethod())
+                .execute(entityManager, id, request.getVersion());
+            if (!updated) {
+                long currentVersion = saleRepository.findVersionById(id)
+                        .orElseThrow(() -> new RuntimeException("Sale not found with id: " + id));
+                throw new VersionConflictException("Sale " + id + " has changed since version " + request.getVersion(),
+                        currentVersion);
+            }
+            return findSale(id).orElseThrow(() -> new RuntimeException("Sale not found with id: " + id));
+        });
+
+        customerSketchService.recordSale(updatedSale);
+        searchService.indexSale(updatedSale);
+        eventPublisher.publishEvent(new SaleChangedEvent(1));
         return convertToDTO(updatedSale);
     }
 
     public void deleteSale(Long id) {
-        if (!saleRepository.existsById(id)) {
+        boolean deleted = shardedSaleRepository.isEnabled()
+            ? shardedSaleRepository.deleteById(id)
+            : saleRepository.deleteByIds(List.of(id)) > 0;
+        if (!deleted) {
             throw new RuntimeException("Sale not found with id: " + id);
         }
-        saleRepository.deleteById(id);
+        searchService.removeSale(id);
+        eventPublisher.publishEvent(new SaleChangedEvent(1));
+    }
+
+    private Optional<Sale> findSale(Long id) {
+        return shardedSaleRepository.isEnabled() ? shardedSaleRepository.findById(id) : saleRepository.findById(id);
+    }
+
+    private Sale toSale(Product product, CreateSaleRequest request) {
+        Sale sale = new Sale();
+        sale.setProduct(product);
+        sale.setQuantity(request.getQuantity());
+        sale.setTotalAmountMinor(Money.toMinorUnits(request.getTotalAmount()));
+        sale.setSaleDate(request.getSaleDate());
+        sale.setCustomerName(request.getCustomerName());
+        sale.setRegion(request.getRegion());
+        sale.setPaymentMethod(request.getPaymentMethod());
+        return sale;
     }
 
     private SaleDTO convertToDTO(Sale sale) {
@@ -131,11 +679,25 @@ public class SaleService {
             sale.getProduct().getName(),
             sale.getProduct().getCategory(),
             sale.getQuantity(),
-            sale.getTotalAmount(),
+            Money.toMajorUnits(sale.getTotalAmountMinor()),
             sale.getSaleDate(),
             sale.getCustomerName(),
             sale.getRegion(),
-            sale.getPaymentMethod()
+            sale.getPaymentMethod(),
+            sale.getVersion()
         );
     }
+
+    @FunctionalInterface
+    private interface Export {
+        long write(OutputStream out) throws IOException;
+    }
+
+    private static class CsvChunkBuffer {
+        private static final int INITIAL_SIZE = 256 * 1024;
+        private static final int MAX_RETAINED_SIZE = 2 * INITIAL_SIZE;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_SIZE);
+        private final SaleCsvEncoder encoder = new SaleCsvEncoder(bytes);
+    }
 }
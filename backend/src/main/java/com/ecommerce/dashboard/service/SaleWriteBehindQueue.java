@@ -0,0 +1,367 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.CreateSaleRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bounded in-memory queue of accepted sales in front of the database, backed by an
+ * append-only journal.
+ * <p>
+ * Each accepted sale is appended to the journal as {@code S <json>} and fsynced
+ * before the request returns; concurrent requests share one fsync. A single batcher
+ * thread drains the queue into the consumer in batches of up to {@code batch-size},
+ * waiting at most {@code flush-interval-ms} for a batch to fill, and appends
+ * {@code C <id> <id> ...} with the ids of the batch once it is committed.
+ * <p>
+ * A failed batch is retried {@code max-retries} times with a growing delay, then each
+ * of its sales on its own. Sales that still fail stay uncommitted in the journal, which
+ * is only truncated once no appended entry is left uncommitted. On startup, every
+ * entry without a commit marker is replayed before the queue accepts sales. A crash
+ * between a database commit and its marker replays that batch again, so consumers
+ * should skip idempotency keys that are already stored. The consumer only throws when
+ * nothing was committed.
+ */
+@Service
+public class SaleWriteBehindQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleWriteBehindQueue.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${sales.write-behind.enabled}")
+    private boolean enabled;
+
+    @Value("${sales.write-behind.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${sales.write-behind.batch-size}")
+    private int batchSize;
+
+    @Value("${sales.write-behind.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${sales.write-behind.journal-path}")
+    private String journalPath;
+
+    @Value("${sales.write-behind.max-retries}")
+    private int maxRetries;
+
+    @Value("${sales.write-behind.retry-backoff-ms}")
+    private long retryBackoffMs;
+
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+
+    private final Map<String, QueuedKey> queuedIdempotencyKeys = new HashMap<>();
+    private final Set<Long> uncommittedIds = new HashSet<>();
+
+    private BlockingQueue<PendingSale> queue;
+    private FileChannel journal;
+    private long nextProvisionalId;
+    private long lastAppendedId;
+    // Guarded by appendLock; a position is only comparable to positions of the same truncation
+    private long truncations;
+    // Guarded by syncLock
+    private long syncedTruncations;
+    private long syncedPosition;
+    private volatile boolean running;
+    private volatile boolean stopping;
+    private Thread batcher;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replays uncommitted journal entries and starts the batcher thread. Sales are not
+     * accepted until this has run.
+     */
+    public void start(Consumer<List<PendingSale>> consumer) {
+        if (!enabled) {
+            return;
+        }
+        List<PendingSale> replayed;
+        try {
+            Path path = Path.of(journalPath);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            replayed = readUncommitted(path);
+            journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            syncedPosition = journal.size();
+
+            nextProvisionalId = Math.max(System.currentTimeMillis() * 1000, lastAppendedId + 1);
+            replayed.forEach(pending -> uncommittedIds.add(pending.provisionalId()));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open sale journal " + journalPath, e);
+        }
+
+        if (!replayed.isEmpty()) {
+            logger.info("Replaying {} uncommitted sales from {}", replayed.size(), journalPath);
+            try {
+                for (int from = 0; from < replayed.size(); from += batchSize) {
+                    write(consumer, replayed.subList(from, Math.min(from + batchSize, replayed.size())));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        running = true;
+        batcher = new Thread(() -> drainLoop(consumer), "sale-write-behind");
+        batcher.setDaemon(true);
+        batcher.start();
+    }
+
+    /**
+     * Journals and queues a validated sale. A sale whose idempotency key is already
+     * queued by the same owner with the same request is not queued again and gets the
+     * provisional id of the queued one.
+     *
+     * @return the provisional id, or -1 if the queue is full or not started
+     * @throws IdempotencyKeyConflictException if the key is queued by another owner or
+     *         with a different request
+     */
+    public long enqueue(CreateSaleRequest request, String idempotencyKey, String owner) {
+        long truncation;
+        long position;
+        PendingSale pending;
+        try {
+            synchronized (appendLock) {
+                QueuedKey queued = idempotencyKey != null ? queuedIdempotencyKeys.get(idempotencyKey) : null;
+                if (queued != null) {
+                    if (!Objects.equals(queued.owner(), owner) || !queued.request().equals(request)) {
+                        throw new IdempotencyKeyConflictException("Idempotency-Key was already used with a different request");
+                    }
+                    return queued.provisionalId();
+                }
+                if (!running || queue.remainingCapacity() == 0) {
+                    return -1;
+                }
+                pending = new PendingSale(nextProvisionalId++, idempotencyKey, request);
+                position = append("S " + objectMapper.writeValueAsString(pending));
+                truncation = truncations;
+                lastAppendedId = pending.provisionalId();
+                uncommittedIds.add(pending.provisionalId());
+                if (idempotencyKey != null) {
+                    queuedIdempotencyKeys.put(idempotencyKey, new QueuedKey(owner, request, pending.provisionalId()));
+                }
+                queue.add(pending);
+            }
+            syncUpTo(truncation, position);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to journal sale", e);
+        }
+        return pending.provisionalId();
+    }
+
+    @PreDestroy
+    private void stop() throws InterruptedException, IOException {
+        if (!running) {
+            return;
+        }
+        stopping = true;
+        synchronized (appendLock) {
+            running = false;
+        }
+        batcher.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+
+    private void drainLoop(Consumer<List<PendingSale>> consumer) {
+        List<PendingSale> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSale first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    PendingSale next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                write(consumer, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch, retrying it as a whole and then sale by sale. Sales that cannot be
+     * written are left uncommitted for the next start.
+     */
+    private void write(Consumer<List<PendingSale>> consumer, List<PendingSale> batch) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                consumer.accept(batch);
+                appendCommit(batch);
+                return;
+            } catch (IOException e) {
+                // Committed, but the marker is lost; the batch is replayed and skipped on restart
+                logger.error("Failed to journal the commit of {} queued sales: {}", batch.size(), e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == maxRetries || stopping) {
+                    logger.warn("Failed to write {} queued sales after {} attempts: {}", batch.size(), attempt + 1, e.getMessage());
+                    break;
+                }
+                Thread.sleep(retryBackoffMs << Math.min(attempt, 10));
+            }
+        }
+
+        if (batch.size() == 1) {
+            logger.error("Queued sale {} stays in {} until the next start", batch.get(0).provisionalId(), journalPath);
+            releaseKey(batch.get(0));
+            return;
+        }
+        for (PendingSale pending : batch) {
+            try {
+                consumer.accept(List.of(pending));
+                appendCommit(List.of(pending));
+            } catch (IOException e) {
+                logger.error("Failed to journal the commit of queued sale {}: {}", pending.provisionalId(), e.getMessage());
+            } catch (RuntimeException e) {
+                logger.error("Queued sale {} stays in {} until the next start: {}",
+                    pending.provisionalId(), journalPath, e.getMessage());
+                releaseKey(pending);
+            }
+        }
+    }
+
+    private void appendCommit(List<PendingSale> batch) throws IOException {
+        StringBuilder marker = new StringBuilder("C");
+        synchronized (appendLock) {
+            for (PendingSale pending : batch) {
+                releaseKey(pending);
+                uncommittedIds.remove(pending.provisionalId());
+                marker.append(' ').append(pending.provisionalId());
+            }
+            if (uncommittedIds.isEmpty()) {
+                journal.truncate(0);
+                truncations++;
+                return;
+            }
+            append(marker.toString());
+        }
+    }
+
+    /**
+     * Lets the idempotency key of a written or abandoned sale be queued again. A retry of
+     * an abandoned sale is queued anew; if both are written later, the stored key skips one.
+     */
+    private void releaseKey(PendingSale pending) {
+        if (pending.idempotencyKey() == null) {
+            return;
+        }
+        synchronized (appendLock) {
+            QueuedKey queued = queuedIdempotencyKeys.get(pending.idempotencyKey());
+            if (queued != null && queued.provisionalId() == pending.provisionalId()) {
+                queuedIdempotencyKeys.remove(pending.idempotencyKey());
+            }
+        }
+    }
+
+    private long append(String line) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            journal.write(bytes);
+        }
+        return journal.position();
+    }
+
+    /**
+     * Forces the journal unless a force that started after the given append has finished.
+     * A truncation after the append means its sale was already written, so it needs none.
+     */
+    private void syncUpTo(long truncation, long position) throws IOException {
+        synchronized (syncLock) {
+            if (syncedTruncations > truncation || (syncedTruncations == truncation && syncedPosition >= position)) {
+                return;
+            }
+            long endTruncation;
+            long end;
+            synchronized (appendLock) {
+                endTruncation = truncations;
+                end = journal.position();
+            }
+            journal.force(false);
+            syncedTruncations = endTruncation;
+            syncedPosition = end;
+        }
+    }
+
+    private List<PendingSale> readUncommitted(Path path) throws IOException {
+        List<PendingSale> entries = new ArrayList<>();
+        Set<Long> committedIds = new HashSet<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ", 2);
+                try {
+                    if (parts[0].equals("S") && parts.length == 2) {
+                        PendingSale pending = objectMapper.readValue(parts[1], PendingSale.class);
+                        entries.add(pending);
+                        lastAppendedId = Math.max(lastAppendedId, pending.provisionalId());
+                    } else if (parts[0].equals("C") && parts.length == 2) {
+                        for (String id : parts[1].split(" ")) {
+                            committedIds.add(Long.parseLong(id));
+                        }
+                    }
+                } catch (IOException | NumberFormatException e) {
+                    // A torn final line from a crash mid-append was never acknowledged
+                    logger.warn("Skipping unreadable sale journal line: {}", line);
+                }
+            }
+        }
+        entries.removeIf(entry -> committedIds.contains(entry.provisionalId()));
+        return entries;
+    }
+
+    public record PendingSale(long provisionalId, String idempotencyKey, CreateSaleRequest request) {
+    }
+
+    private record QueuedKey(String owner, CreateSaleRequest request, long provisionalId) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.PeriodComparisonDTO;
+import com.ecommerce.dashboard.dto.PeriodComparisonRowDTO;
+import com.ecommerce.dashboard.repository.SaleRepository;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
+import com.ecommerce.dashboard.util.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Revenue, quantity and order counts for a period next to an earlier period of the same
+ * length, per category, region or product. Both periods come from a single grouped query
+ * with conditional sums, and the totals are added up from the groups.
+ */
+@Service
+public class SalesComparisonService {
+
+    public static final Set<String> GROUPS = Set.of("category", "region", "product");
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ShardedSaleRepository shardedSaleRepository;
+
+    /**
+     * Without a previous start, the previous period is the one right before {@code from}.
+     */
+    public PeriodComparisonDTO comparePeriods(LocalDateTime from, LocalDateTime to, LocalDateTime previousFrom, String groupBy) {
+        if (shardedSaleRepository.isEnabled()) {
+            throw new RuntimeException("Period comparisons are not supported when sales are sharded");
+        }
+        Duration length = Duration.between(from, to);
+        if (previousFrom == null) {
+            previousFrom = from.minus(length);
+        }
+        LocalDateTime previousTo = previousFrom.plus(length);
+
+        List<Object[]> rows = switch (groupBy) {
+            case "category" -> saleRepository.comparePeriodsByCategory(from, to, previousFrom, previousTo);
+            case "region" -> saleRepository.comparePeriodsByRegion(from, to, previousFrom, previousTo);
+            case "product" -> saleRepository.comparePeriodsByProduct(from, to, previousFrom, previousTo);
+            default -> throw new IllegalArgumentException("Unknown group: " + groupBy);
+        };
+
+        long[] total = new long[6];
+        List<PeriodComparisonRowDTO> groups = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long[] sums = new long[6];
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] = row[i + 1] != null ? ((Number) row[i + 1]).longValue() : 0;
+                total[i] += sums[i];
+            }
+            groups.add(toRow((String) row[0], sums));
+        }
+        return new PeriodComparisonDTO(from, to, previousFrom, previousTo, groupBy, toRow(null, total), groups);
+    }
+
+    private PeriodComparisonRowDTO toRow(String name, long[] sums) {
+        return new PeriodComparisonRowDTO(name,
+            Money.toMajorUnits(sums[0]), Money.toMajorUnits(sums[1]), growth(sums[0], sums[1]),
+            sums[2], sums[3], growth(sums[2], sums[3]),
+            sums[4], sums[5], growth(sums[4], sums[5]));
+    }
+
+    private static Double growth(long current, long previous) {
+        if (previous == 0) {
+            return null;
+        }
+        return Math.round((current - previous) * 10_000.0 / previous) / 100.0;
+    }
+}
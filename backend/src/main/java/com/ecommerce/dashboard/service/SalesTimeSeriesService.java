@@ -0,0 +1,147 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.TimeSeriesDTO;
+import com.ecommerce.dashboard.dto.TimeSeriesPointDTO;
+import com.ecommerce.dashboard.repository.SaleRepository;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
+import com.ecommerce.dashboard.util.Lttb;
+import com.ecommerce.dashboard.util.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revenue and order counts over time, bucketed in the database. The bucket is the
+ * finest of minute, hour, day and month that keeps the range within the point budget,
+ * so the response stays bounded however long the range is. With downsampling, a finer
+ * bucket is allowed and LTTB reduces it back to the budget, which keeps short spikes
+ * that a coarser bucket would average away.
+ */
+@Service
+public class SalesTimeSeriesService {
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ShardedSaleRepository shardedSaleRepository;
+
+    @Value("${sales.timeseries.max-points}")
+    private int maxPoints;
+
+    @Value("${sales.timeseries.lttb-oversampling}")
+    private int lttbOversampling;
+
+    public TimeSeriesDTO getTimeSeries(LocalDateTime from, LocalDateTime to, int points, boolean downsample) {
+        if (shardedSaleRepository.isEnabled()) {
+            throw new RuntimeException("Time series are not supported when sales are sharded");
+        }
+        int budget = Math.max(3, Math.min(points, maxPoints));
+        int bucketLimit = downsample ? budget * lttbOversampling : budget;
+        Bucket bucket = Bucket.forRange(from, to, bucketLimit);
+
+        Map<LocalDateTime, Object[]> rows = new HashMap<>();
+        for (Object[] row : bucket.query(saleRepository, from, to)) {
+            LocalDateTime time = row[0] instanceof LocalDate date ? date.atStartOfDay() : (LocalDateTime) row[0];
+            rows.put(time, row);
+        }
+
+        // Empty buckets are sent as zeros so the chart's x axis stays evenly spaced
+        List<TimeSeriesPointDTO> series = new ArrayList<>();
+        for (LocalDateTime time = bucket.truncate(from); time.isBefore(to); time = bucket.next(time)) {
+            Object[] row = rows.get(time);
+            series.add(row == null
+                ? new TimeSeriesPointDTO(time, 0, 0)
+                : new TimeSeriesPointDTO(time, Money.toMajorUnits(((Number) row[1]).longValue()), ((Number) row[2]).longValue()));
+        }
+
+        boolean downsampled = series.size() > budget;
+        if (downsampled) {
+            series = downsample(series, budget);
+        }
+        return new TimeSeriesDTO(from, to, bucket.key, downsampled, series);
+    }
+
+    private List<TimeSeriesPointDTO> downsample(List<TimeSeriesPointDTO> series, int budget) {
+        double[] x = new double[series.size()];
+        double[] y = new double[series.size()];
+        for (int i = 0; i < series.size(); i++) {
+            x[i] = series.get(i).getTime().toEpochSecond(ZoneOffset.UTC);
+            y[i] = series.get(i).getRevenue();
+        }
+
+        int[] selected = Lttb.select(x, y, budget);
+        List<TimeSeriesPointDTO> points = new ArrayList<>(selected.length);
+        for (int index : selected) {
+            points.add(series.get(index));
+        }
+        return points;
+    }
+
+    private enum Bucket {
+        MINUTE("minute", Duration.ofMinutes(1), SaleRepository::sumRevenueByMinute),
+        HOUR("hour", Duration.ofHours(1), SaleRepository::sumRevenueByHour),
+        DAY("day", Duration.ofDays(1), SaleRepository::sumRevenueByDay),
+        MONTH("month", ChronoUnit.MONTHS.getDuration(), SaleRepository::sumRevenueByMonth);
+
+        private final String key;
+        private final Duration approximateLength;
+        private final Query query;
+
+        Bucket(String key, Duration approximateLength, Query query) {
+            this.key = key;
+            this.approximateLength = approximateLength;
+            this.query = query;
+        }
+
+        /**
+         * Month is the coarsest bucket; ranges too long even for months are left to LTTB.
+         */
+        static Bucket forRange(LocalDateTime from, LocalDateTime to, int bucketLimit) {
+            Duration range = Duration.between(from, to);
+            for (Bucket bucket : values()) {
+                // Plus the partial buckets at either end
+                if (range.dividedBy(bucket.approximateLength) + 2 <= bucketLimit) {
+                    return bucket;
+                }
+            }
+            return MONTH;
+        }
+
+        List<Object[]> query(SaleRepository repository, LocalDateTime from, LocalDateTime to) {
+            return query.apply(repository, from, to);
+        }
+
+        LocalDateTime truncate(LocalDateTime time) {
+            return switch (this) {
+                case MINUTE -> time.truncatedTo(ChronoUnit.MINUTES);
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            };
+        }
+
+        LocalDateTime next(LocalDateTime time) {
+            return switch (this) {
+                case MINUTE -> time.plusMinutes(1);
+                case HOUR -> time.plusHours(1);
+                case DAY -> time.plusDays(1);
+                case MONTH -> time.plusMonths(1);
+            };
+        }
+
+        @FunctionalInterface
+        private interface Query {
+            List<Object[]> apply(SaleRepository repository, LocalDateTime from, LocalDateTime to);
+        }
+    }
+}
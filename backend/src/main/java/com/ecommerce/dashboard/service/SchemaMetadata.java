@@ -0,0 +1,74 @@
+package com.ecommerce.dashboard.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * JDBC metadata lookups for the startup migrations, scoped to the current database.
+ */
+@Service
+public class SchemaMetadata {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public boolean hasColumn(String table, String column) {
+        return metadata((metaData, catalog) -> {
+            try (ResultSet columns = metaData.getColumns(catalog, null, table, column)) {
+                return columns.next();
+            }
+        });
+    }
+
+    public boolean hasForeignKey(String table, String foreignKey) {
+        return metadata((metaData, catalog) -> {
+            try (ResultSet keys = metaData.getImportedKeys(catalog, null, table)) {
+                while (keys.next()) {
+                    if (foreignKey.equalsIgnoreCase(keys.getString("FK_NAME"))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        });
+    }
+
+    public Set<String> indexesOn(String table, String column) {
+        return metadata((metaData, catalog) -> {
+            Set<String> indexes = new LinkedHashSet<>();
+            try (ResultSet info = metaData.getIndexInfo(catalog, null, table, false, false)) {
+                while (info.next()) {
+                    if (column.equalsIgnoreCase(info.getString("COLUMN_NAME"))) {
+                        indexes.add(info.getString("INDEX_NAME"));
+                    }
+                }
+            }
+            return indexes;
+        });
+    }
+
+    /**
+     * Drops the column along with any index that includes it.
+     */
+    public void dropColumn(String table, String column) {
+        for (String index : indexesOn(table, column)) {
+            jdbcTemplate.execute("DROP INDEX " + index + " ON " + table);
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + column);
+    }
+
+    private <T> T metadata(MetadataCallback<T> callback) {
+        return jdbcTemplate.execute((Connection connection) -> callback.apply(connection.getMetaData(), connection.getCatalog()));
+    }
+
+    private interface MetadataCallback<T> {
+        T apply(DatabaseMetaData metaData, String catalog) throws SQLException;
+    }
+}
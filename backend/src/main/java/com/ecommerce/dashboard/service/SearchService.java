@@ -0,0 +1,358 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.SearchResponseDTO;
+import com.ecommerce.dashboard.dto.SearchResultDTO;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.repository.ProductRepository;
+import com.ecommerce.dashboard.repository.SaleRepository;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
+import com.ecommerce.dashboard.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded Lucene index over sale customer names and product names and categories.
+ * Writes from {@link SaleService} and {@link ProductService} update it incrementally;
+ * they become searchable at the next refresh and durable at the next commit. The index
+ * is rebuilt from the database when it starts out empty; writes made meanwhile are
+ * queued and applied in order once the rebuild has reindexed everything, so the older
+ * copy read by the rebuild does not win.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    private static final String SALE = "sale";
+    private static final String PRODUCT = "product";
+    private static final Map<String, List<String>> FIELDS_BY_TYPE = Map.of(
+        SALE, List.of("customer"),
+        PRODUCT, List.of("name", "category")
+    );
+    private static final List<String> ALL_FIELDS = List.of("customer", "name", "category");
+    private static final DateTimeFormatter SALE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ShardedSaleRepository shardedSaleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${search.index.path}")
+    private String indexPath;
+
+    @Value("${search.rebuild.batch-size}")
+    private int rebuildBatchSize;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    // Non-null while a rebuild runs; guarded by rebuildLock
+    private Queue<Runnable> writesDuringRebuild;
+
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    private void openIndex() throws IOException {
+        directory = FSDirectory.open(Path.of(indexPath));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    private void closeIndex() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public SearchResponseDTO search(String text, String type, int limit) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return new SearchResponseDTO(text, 0, List.of());
+        }
+
+        List<String> fields = type != null ? FIELDS_BY_TYPE.get(type) : ALL_FIELDS;
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(termQuery(fields, term), BooleanClause.Occur.MUST);
+        }
+        if (type != null) {
+            query.add(new TermQuery(new Term("type", type)), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query.build(), limit);
+                List<SearchResultDTO> results = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    Document document = searcher.storedFields().document(scoreDoc.doc);
+                    results.add(new SearchResultDTO(
+                        document.get("type"),
+                        document.getField("id").numericValue().longValue(),
+                        document.get("title"),
+                        document.get("subtitle"),
+                        scoreDoc.score
+                    ));
+                }
+                return new SearchResponseDTO(text, topDocs.totalHits.value, results);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        }
+    }
+
+    public void indexSale(Sale sale) {
+        write(() -> writeSale(sale));
+    }
+
+    public void indexProduct(Product product) {
+        write(() -> writeProduct(product));
+    }
+
+    public void removeSale(Long id) {
+        write(() -> remove(new Term("key", SALE + ":" + id)));
+    }
+
+    public void removeProduct(Long id) {
+        write(() -> remove(new Term("key", PRODUCT + ":" + id)));
+    }
+
+    private void write(Runnable write) {
+        rebuildLock.readLock().lock();
+        try {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(write);
+            } else {
+                write.run();
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void writeSale(Sale sale) {
+        Term key = new Term("key", SALE + ":" + sale.getId());
+        try {
+            if (sale.getCustomerName() == null || sale.getCustomerName().isBlank()) {
+                writer.deleteDocuments(key);
+                return;
+            }
+
+            Document document = newDocument(SALE, sale.getId(), key);
+            document.add(new TextField("customer", sale.getCustomerName(), Field.Store.NO));
+            document.add(new StoredField("title", sale.getCustomerName()));
+            document.add(new StoredField("subtitle", sale.getSaleDate().format(SALE_DATE_FORMAT)
+                + " · " + sale.getRegion() + " · " + Money.format(sale.getTotalAmountMinor())));
+            writer.updateDocument(key, document);
+        } catch (IOException e) {
+            logger.error("Failed to index sale {}: {}", sale.getId(), e.getMessage());
+        }
+    }
+
+    private void writeProduct(Product product) {
+        Term key = new Term("key", PRODUCT + ":" + product.getId());
+        try {
+            Document document = newDocument(PRODUCT, product.getId(), key);
+            document.add(new TextField("name", product.getName(), Field.Store.NO));
+            document.add(new StoredField("title", product.getName()));
+            if (product.getCategory() != null) {
+                document.add(new TextField("category", product.getCategory(), Field.Store.NO));
+                document.add(new StoredField("subtitle", product.getCategory()));
+            }
+            writer.updateDocument(key, document);
+        } catch (IOException e) {
+            logger.error("Failed to index product {}: {}", product.getId(), e.getMessage());
+        }
+    }
+
+    // Both wait for a running rebuild, so searches keep the previous index until it is done
+
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms}")
+    public void refresh() throws IOException {
+        if (!rebuilding.get()) {
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms}")
+    public void commit() throws IOException {
+        if (!rebuilding.get() && writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            rebuildInBackground();
+        }
+    }
+
+    /**
+     * Clears the index and reindexes every product and sale on a background thread.
+     *
+     * @return false if a rebuild is already running
+     */
+    public boolean rebuildInBackground() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("Search index rebuild failed, the index is incomplete until the next rebuild", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        }, "search-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private void rebuild() throws IOException {
+        long start = System.nanoTime();
+        rebuildLock.writeLock().lock();
+        try {
+            writesDuringRebuild = new ConcurrentLinkedQueue<>();
+            writer.deleteAll();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+
+        long indexed = 0;
+        try {
+            productRepository.findAll().forEach(this::writeProduct);
+
+            long afterId = 0;
+            List<Sale> batch;
+            while (!(batch = findBatchAfterId(afterId)).isEmpty()) {
+                batch.forEach(this::writeSale);
+                indexed += batch.size();
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } finally {
+            rebuildLock.writeLock().lock();
+            try {
+                writesDuringRebuild.forEach(Runnable::run);
+                writesDuringRebuild = null;
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+
+        writer.commit();
+        searcherManager.maybeRefresh();
+        logger.info("Rebuilt search index with {} sales in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<Sale> findBatchAfterId(long afterId) {
+        return shardedSaleRepository.isEnabled()
+            ? shardedSaleRepository.findBatchAfterId(afterId, rebuildBatchSize)
+            : saleRepository.findBatchAfterId(afterId, PageRequest.of(0, rebuildBatchSize));
+    }
+
+    private Document newDocument(String type, Long id, Term key) {
+        Document document = new Document();
+        document.add(new StringField("key", key.text(), Field.Store.NO));
+        document.add(new StringField("type", type, Field.Store.YES));
+        document.add(new StoredField("id", id));
+        return document;
+    }
+
+    private void remove(Term key) {
+        try {
+            writer.deleteDocuments(key);
+        } catch (IOException e) {
+            logger.error("Failed to remove {} from search index: {}", key.text(), e.getMessage());
+        }
+    }
+
+    /**
+     * Exact matches rank above prefix matches, which rank above fuzzy matches. Fuzzy
+     * matching keeps the first character fixed so the term dictionary scan stays short.
+     */
+    private BooleanQuery termQuery(List<String> fields, String term) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String field : fields) {
+            query.add(new BoostQuery(new TermQuery(new Term(field, term)), 3), BooleanClause.Occur.SHOULD);
+            query.add(new BoostQuery(new PrefixQuery(new Term(field, term)), 2), BooleanClause.Occur.SHOULD);
+            if (term.length() >= 3) {
+                query.add(new FuzzyQuery(new Term(field, term), term.length() > 5 ? 2 : 1, 1), BooleanClause.Occur.SHOULD);
+            }
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream("customer", text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+}
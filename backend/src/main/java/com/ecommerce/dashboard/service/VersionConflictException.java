@@ -0,0 +1,18 @@
+package com.ecommerce.dashboard.service;
+
+/**
+ * A partial update found a newer version than the one it was based on.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public VersionConflictException(String message, long currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.dashboard.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog cardinality sketch with 2^12 registers.
+ * <p>
+ * The relative standard error of {@link #estimate()} is 1.04 / sqrt(4096), about 1.6%,
+ * so roughly 95% of estimates fall within 3.3% of the true distinct count. Small
+ * cardinalities use linear counting and are close to exact.
+ */
+public class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+    public static final double RELATIVE_STANDARD_ERROR = 1.04 / Math.sqrt(REGISTER_COUNT);
+
+    private static final byte FORMAT_DENSE = 0;
+    private static final byte FORMAT_SPARSE = 1;
+    private static final int HEADER_SIZE = 2;
+    private static final int SPARSE_ENTRY_SIZE = 3;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+
+    public void add(String value) {
+        addHash(hash(value));
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        long remaining = hash << PRECISION;
+        int rank = Math.min(Long.numberOfLeadingZeros(remaining), 64 - PRECISION) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Merges a serialized sketch straight into this one without materializing it.
+     */
+    public void merge(byte[] serialized) {
+        checkHeader(serialized);
+        if (serialized[0] == FORMAT_DENSE) {
+            for (int i = 0; i < REGISTER_COUNT; i++) {
+                byte rank = serialized[HEADER_SIZE + i];
+                if (rank > registers[i]) {
+                    registers[i] = rank;
+                }
+            }
+        } else {
+            for (int offset = HEADER_SIZE; offset < serialized.length; offset += SPARSE_ENTRY_SIZE) {
+                int index = ((serialized[offset] & 0xFF) << 8) | (serialized[offset + 1] & 0xFF);
+                byte rank = serialized[offset + 2];
+                if (rank > registers[index]) {
+                    registers[index] = rank;
+                }
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte rank : registers) {
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+
+        double m = REGISTER_COUNT;
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log(m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Serializes the sketch, using a sparse (index, rank) encoding while it is smaller
+     * than the dense register array. Most per-day sketches only hold a few customers.
+     */
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte rank : registers) {
+            if (rank != 0) {
+                nonZero++;
+            }
+        }
+
+        if (nonZero * SPARSE_ENTRY_SIZE < REGISTER_COUNT) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + nonZero * SPARSE_ENTRY_SIZE);
+            buffer.put(FORMAT_SPARSE).put((byte) PRECISION);
+            for (int i = 0; i < REGISTER_COUNT; i++) {
+                if (registers[i] != 0) {
+                    buffer.putShort((short) i).put(registers[i]);
+                }
+            }
+            return buffer.array();
+        }
+
+        byte[] bytes = new byte[HEADER_SIZE + REGISTER_COUNT];
+        bytes[0] = FORMAT_DENSE;
+        bytes[1] = PRECISION;
+        System.arraycopy(registers, 0, bytes, HEADER_SIZE, REGISTER_COUNT);
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] serialized) {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.merge(serialized);
+        return sketch;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars followed by the MurmurHash3 finalizer,
+     * which spreads the low-entropy FNV output across all bits.
+     */
+    public static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static void checkHeader(byte[] serialized) {
+        if (serialized.length < HEADER_SIZE || serialized[1] != PRECISION
+                || (serialized[0] != FORMAT_DENSE && serialized[0] != FORMAT_SPARSE)) {
+            throw new IllegalArgumentException("Unsupported HyperLogLog encoding");
+        }
+    }
+}
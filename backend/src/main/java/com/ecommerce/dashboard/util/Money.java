@@ -0,0 +1,42 @@
+package com.ecommerce.dashboard.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between API amounts and the long minor units (cents) stored in the
+ * database. Sums of minor units are exact; amounts only become doubles at the API edge.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private static final double MINOR_UNITS_PER_MAJOR = 100.0;
+
+    private Money() {
+    }
+
+    /**
+     * Rounds half up to whole minor units. Goes through the shortest decimal form of the
+     * double, so 1.005 becomes 101 rather than 100.
+     */
+    public static long toMinorUnits(double amount) {
+        return BigDecimal.valueOf(amount).movePointRight(SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static Long toMinorUnits(Double amount) {
+        return amount == null ? null : toMinorUnits(amount.doubleValue());
+    }
+
+    public static double toMajorUnits(long minorUnits) {
+        return minorUnits / MINOR_UNITS_PER_MAJOR;
+    }
+
+    public static Double toMajorUnits(Long minorUnits) {
+        return minorUnits == null ? null : toMajorUnits(minorUnits.longValue());
+    }
+
+    public static String format(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE).toPlainString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.dashboard.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one computation per key at a time. Callers that ask for a key while it is
+ * being computed wait for that computation and get its result or exception. The first
+ * caller computes on its own thread. A result is reused for {@code ttl} after it
+ * completes; with a zero ttl only callers that arrive while it is in flight share it.
+ * Failures are never reused.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public SingleFlight(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public V get(K key, Supplier<V> computation) {
+        while (true) {
+            Flight<V> flight = flights.get(key);
+            if (flight == null) {
+                Flight<V> own = new Flight<>();
+                flight = flights.putIfAbsent(key, own);
+                if (flight == null) {
+                    return compute(key, own, computation);
+                }
+            }
+            if (ttlNanos > 0 && flight.isExpired(System.nanoTime())) {
+                flights.remove(key, flight);
+                continue;
+            }
+            return await(flight);
+        }
+    }
+
+    /**
+     * Number of keys in flight or holding a result that may not have expired yet.
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    private V compute(K key, Flight<V> flight, Supplier<V> computation) {
+        V value;
+        try {
+            value = computation.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        if (ttlNanos > 0) {
+            long now = System.nanoTime();
+            flight.expiresAt = now + ttlNanos;
+            // Results are only dropped lazily, so clear out keys nobody asked for again
+            flights.values().removeIf(other -> other.isExpired(now));
+        } else {
+            flights.remove(key, flight);
+        }
+        flight.complete(value);
+        return value;
+    }
+
+    private static <V> V await(Flight<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Flight<V> extends CompletableFuture<V> {
+
+        private volatile long expiresAt;
+
+        private boolean isExpired(long now) {
+            return isDone() && !isCompletedExceptionally() && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.dashboard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the native image against an in-memory H2 database with demo data, then signs in
+ * and reads through the JPA, JWT and JSON paths. Runs in the integration-test phase of
+ * -Pnative, which passes the binary in native.binary.
+ */
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+public class NativeSmokeIT {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testBinaryServesAuthenticatedRequests(@TempDir Path dir) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Path log = dir.resolve("native.log");
+        Process process = new ProcessBuilder(List.of(
+                System.getProperty("native.binary"),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:smoke;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--search.index.path=" + dir.resolve("search-index"),
+                "--sales.write-behind.journal-path=" + dir.resolve("sale-journal.log")))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            awaitStartup(process, log);
+            String base = "http://localhost:" + port + "/api";
+
+            HttpResponse<String> signin = client.send(HttpRequest.newBuilder(URI.create(base + "/auth/signin"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, signin.statusCode(), signin.body());
+            String token = objectMapper.readTree(signin.body()).get("token").asText();
+
+            JsonNode products = get(base + "/products", token);
+            assertTrue(products.isArray() && products.size() > 0, products.toString());
+
+            JsonNode sales = get(base + "/sales?page=0&size=5", token);
+            assertEquals(5, sales.get("content").size(), sales.toString());
+            assertTrue(sales.get("content").get(0).get("version").isNumber());
+
+            JsonNode summary = get(base + "/dashboard/summary", token);
+            assertTrue(summary.get("totalSales").asLong() > 0, summary.toString());
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private JsonNode get(String uri, String token) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(uri))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), uri + ": " + response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private void awaitStartup(Process process, Path log) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            String output = Files.readString(log);
+            if (output.contains("Started DashboardApplication")) {
+                return;
+            }
+            if (!process.isAlive()) {
+                fail("Native image exited with " + process.exitValue() + ":\n" + output);
+            }
+            Thread.sleep(200);
+        }
+        fail("Native image did not start within " + STARTUP_TIMEOUT + ":\n" + Files.readString(log));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.dashboard.benchmark;
+
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Sale;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic sale rows shaped like the data initializer's sample data.
+ */
+public final class BenchmarkData {
+
+    public static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns {@code count} sales spread evenly over three years, ordered by sale date.
+     */
+    public static List<Sale> sales(int count) {
+        List<Product> products = Arrays.asList(
+            new Product(1L, "Laptop", "Electronics", 89999L, 0L),
+            new Product(2L, "Smartphone", "Electronics", 59999L, 0L),
+            new Product(3L, "Headphones", "Electronics", 14999L, 0L),
+            new Product(4L, "T-Shirt", "Clothing", 2999L, 0L),
+            new Product(5L, "Jeans", "Clothing", 5999L, 0L),
+            new Product(6L, "Coffee Maker", "Home Appliances", 7999L, 0L),
+            new Product(7L, "Blender", "Home Appliances", 4999L, 0L)
+        );
+        String[] regions = {"North", "South", "East", "West"};
+        String[] paymentMethods = {"Credit Card", "Debit Card", "Cash", "UPI"};
+
+        Random random = new Random(42);
+        long spanSeconds = 3L * 365 * 24 * 3600;
+        List<Sale> sales = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = products.get(random.nextInt(products.size()));
+            int quantity = random.nextInt(5) + 1;
+
+            Sale sale = new Sale();
+            sale.setId((long) i + 1);
+            sale.setProduct(product);
+            sale.setQuantity(quantity);
+            sale.setTotalAmountMinor(product.getPriceMinor() * quantity);
+            sale.setSaleDate(START.plusSeconds(spanSeconds * i / count));
+            sale.setCustomerName("Customer " + random.nextInt(50_000));
+            sale.setRegion(regions[random.nextInt(regions.length)]);
+            sale.setPaymentMethod(paymentMethods[random.nextInt(paymentMethods.length)]);
+            sales.add(sale);
+        }
+        return sales;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.dashboard.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password verifications per second on one thread, which is the login ceiling per core.
+ * Multiply by {@code security.password.hashing.threads} for the ceiling of the login pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "admin123";
+
+    @Param({"bcrypt-8", "bcrypt-10", "bcrypt-12", "argon2-19m-2"})
+    private String encoding;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = encoding.split("-");
+        if (parts[0].equals("bcrypt")) {
+            encoder = new BCryptPasswordEncoder(Integer.parseInt(parts[1]));
+        } else {
+            encoder = new Argon2PasswordEncoder(16, 32, 1, 19456, 2);
+        }
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
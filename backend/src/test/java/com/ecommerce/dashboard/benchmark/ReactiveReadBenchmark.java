@@ -0,0 +1,221 @@
+package com.ecommerce.dashboard.benchmark;
+
+import com.ecommerce.dashboard.entity.Category;
+import com.ecommerce.dashboard.entity.DictionaryEntry;
+import com.ecommerce.dashboard.entity.PaymentMethod;
+import com.ecommerce.dashboard.entity.ProductRow;
+import com.ecommerce.dashboard.entity.Region;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.entity.SaleRow;
+import com.ecommerce.dashboard.repository.CategoryRepository;
+import com.ecommerce.dashboard.repository.PaymentMethodRepository;
+import com.ecommerce.dashboard.repository.ReactiveProductRepository;
+import com.ecommerce.dashboard.repository.ReactiveSaleRepository;
+import com.ecommerce.dashboard.repository.RegionRepository;
+import com.ecommerce.dashboard.repository.SaleRepository;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
+import com.ecommerce.dashboard.service.DictionaryMigration;
+import com.ecommerce.dashboard.service.DictionaryService;
+import com.ecommerce.dashboard.service.ReactiveSaleService;
+import com.ecommerce.dashboard.service.SaleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Many concurrent sale exports through the servlet path and through the reactive path.
+ * Both repositories are stubbed in memory, and each query waits {@code queryLatencyMillis}
+ * before returning rows. The JPA stub parks its thread for that time. The R2DBC stub
+ * uses a timer and holds no thread.
+ * <p>
+ * The servlet path runs on a pool the size of Tomcat's default 200 request threads.
+ * Every open connection holds one of those threads, and its stack, until its export
+ * finishes, so past 200 connections the rest queue. The reactive path holds one
+ * subscription and at most {@code reactive.export.prefetch} rows per connection. Run
+ * with {@code -prof gc} to compare allocation per export.
+ * <p>
+ * Measured on JDK 17 with one CPU and 6 GB, 1000 rows and 5 ms latency, {@code -prof gc}.
+ * Exports per second is ops/s times connections; allocation is gc.alloc.rate.norm over
+ * connections.
+ * <pre>
+ * path      connections  exports/s  allocated per export
+ * servlet            64        845                 71 KB
+ * servlet          1024        777                 72 KB
+ * reactive           64        145                1.5 MB
+ * reactive         1024        434                1.5 MB
+ * </pre>
+ * On one CPU the reactive export is CPU bound: it allocates about 20 times more per row,
+ * so it loses at both sizes. The servlet path's cost that this does not show is its
+ * 200 parked threads, each reserving a stack (1 MB by default) outside the heap.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReactiveReadBenchmark {
+
+    private static final int REQUEST_THREADS = 200;
+    private static final int EXPORT_PREFETCH = 256;
+
+    @Param({"64", "1024"})
+    private int connections;
+
+    @Param({"1000"})
+    private int rows;
+
+    @Param({"5"})
+    private long queryLatencyMillis;
+
+    private SaleService saleService;
+    private ReactiveSaleService reactiveSaleService;
+    private ObjectMapper objectMapper;
+    private ExecutorService requestThreads;
+
+    @Setup
+    public void setUp() {
+        List<Sale> sales = BenchmarkData.sales(rows);
+        List<SaleRow> saleRows = sales.stream().map(ReactiveReadBenchmark::toRow).toList();
+        List<ProductRow> productRows = sales.stream()
+            .map(Sale::getProduct)
+            .distinct()
+            .map(product -> new ProductRow(product.getId(), product.getName(), (short) 1, product.getPriceMinor(), 0L))
+            .toList();
+
+        SaleRepository saleRepository = stub(SaleRepository.class);
+        Mockito.when(saleRepository.findBySaleDateBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenAnswer(invocation -> {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(queryLatencyMillis));
+                return sales;
+            });
+        saleService = new SaleService();
+        ReflectionTestUtils.setField(saleService, "saleRepository", saleRepository);
+        ReflectionTestUtils.setField(saleService, "shardedSaleRepository", new ShardedSaleRepository());
+
+        ReactiveSaleRepository reactiveSaleRepository = stub(ReactiveSaleRepository.class);
+        Mockito.when(reactiveSaleRepository.streamInDateOrder(any(), any()))
+            .thenAnswer(invocation -> Flux.fromIterable(saleRows).delaySubscription(Duration.ofMillis(queryLatencyMillis)));
+        ReactiveProductRepository reactiveProductRepository = stub(ReactiveProductRepository.class);
+        Mockito.when(reactiveProductRepository.findAll()).thenAnswer(invocation -> Flux.fromIterable(productRows));
+
+        // Real in-memory maps, loaded once from stubbed tables
+        RegionRepository regionRepository = stub(RegionRepository.class);
+        Mockito.when(regionRepository.findAll()).thenReturn(List.of(entry(new Region(), "North")));
+        PaymentMethodRepository paymentMethodRepository = stub(PaymentMethodRepository.class);
+        Mockito.when(paymentMethodRepository.findAll()).thenReturn(List.of(entry(new PaymentMethod(), "Cash")));
+        CategoryRepository categoryRepository = stub(CategoryRepository.class);
+        Mockito.when(categoryRepository.findAll()).thenReturn(List.of(entry(new Category(), "Electronics")));
+        DictionaryService dictionaryService = new DictionaryService();
+        ReflectionTestUtils.setField(dictionaryService, "regionRepository", regionRepository);
+        ReflectionTestUtils.setField(dictionaryService, "paymentMethodRepository", paymentMethodRepository);
+        ReflectionTestUtils.setField(dictionaryService, "categoryRepository", categoryRepository);
+        ReflectionTestUtils.setField(dictionaryService, "dictionaryMigration", stub(DictionaryMigration.class));
+        ReflectionTestUtils.setField(dictionaryService, "transactionManager", stub(PlatformTransactionManager.class));
+        ReflectionTestUtils.invokeMethod(dictionaryService, "load");
+
+        reactiveSaleService = new ReactiveSaleService();
+        ReflectionTestUtils.setField(reactiveSaleService, "reactiveSaleRepository", reactiveSaleRepository);
+        ReflectionTestUtils.setField(reactiveSaleService, "reactiveProductRepository", reactiveProductRepository);
+        ReflectionTestUtils.setField(reactiveSaleService, "dictionaryService", dictionaryService);
+        ReflectionTestUtils.setField(reactiveSaleService, "shardedSaleRepository", new ShardedSaleRepository());
+
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public void servlet(Blackhole blackhole) throws Exception {
+        List<Future<Long>> exports = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            exports.add(requestThreads.submit(() -> {
+                CountingOutputStream out = new CountingOutputStream();
+                saleService.exportSalesToCSV(BenchmarkData.START, BenchmarkData.START.plusYears(3), out);
+                return out.count;
+            }));
+        }
+        for (Future<Long> export : exports) {
+            blackhole.consume(export.get());
+        }
+    }
+
+    @Benchmark
+    public void reactive(Blackhole blackhole) {
+        AtomicLong bytes = new AtomicLong();
+        List<Mono<Void>> exports = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            // The same pipeline as ReactiveReadHandler.exportSales
+            exports.add(reactiveSaleService.exportSales(BenchmarkData.START, BenchmarkData.START.plusYears(3))
+                .publishOn(Schedulers.boundedElastic(), EXPORT_PREFETCH)
+                .map(sale -> {
+                    try {
+                        return objectMapper.writeValueAsString(sale) + "\n";
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .doOnNext(line -> bytes.addAndGet(line.length()))
+                .then());
+        }
+        Mono.when(exports).block();
+        blackhole.consume(bytes.get());
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    private static <E extends DictionaryEntry> E entry(E entry, String name) {
+        entry.setId((short) 1);
+        entry.setName(name);
+        return entry;
+    }
+
+    private static SaleRow toRow(Sale sale) {
+        return new SaleRow(sale.getId(), sale.getProduct().getId(), sale.getQuantity(), sale.getTotalAmountMinor(),
+            sale.getSaleDate(), sale.getCustomerName(), (short) 1, (short) 1, 0L);
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
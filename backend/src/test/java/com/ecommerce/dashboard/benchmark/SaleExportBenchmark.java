@@ -0,0 +1,113 @@
+package com.ecommerce.dashboard.benchmark;
+
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.repository.SaleRepository;
+import com.ecommerce.dashboard.repository.ShardedSaleRepository;
+import com.ecommerce.dashboard.service.SaleService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Compares the single-threaded CSV export with the parallel chunked export.
+ * The repository is stubbed in memory; {@code rowLatencyNanos} models the time
+ * a JDBC cursor spends waiting on the database per row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SaleExportBenchmark {
+
+    @Param({"200000"})
+    private int rows;
+
+    @Param({"0", "500"})
+    private long rowLatencyNanos;
+
+    private SaleService saleService;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+
+    @Setup
+    public void setUp() {
+        List<Sale> sales = BenchmarkData.sales(rows);
+        startDate = sales.get(0).getSaleDate();
+        endDate = sales.get(sales.size() - 1).getSaleDate();
+
+        SaleRepository saleRepository = Mockito.mock(SaleRepository.class);
+        Mockito.when(saleRepository.findBySaleDateBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> fetch(sales, invocation.getArgument(0), invocation.getArgument(1), true));
+        Mockito.when(saleRepository.findExportChunk(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> fetch(sales, invocation.getArgument(0), invocation.getArgument(1), false));
+
+        saleService = new SaleService();
+        ReflectionTestUtils.setField(saleService, "saleRepository", saleRepository);
+        ReflectionTestUtils.setField(saleService, "shardedSaleRepository", new ShardedSaleRepository());
+        ReflectionTestUtils.setField(saleService, "exportThreads", 4);
+        ReflectionTestUtils.setField(saleService, "exportChunks", 16);
+        ReflectionTestUtils.invokeMethod(saleService, "startExportExecutor");
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(saleService, "stopExportExecutor");
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        saleService.exportSalesToCSV(startDate, endDate, out);
+        blackhole.consume(out.count);
+    }
+
+    @Benchmark
+    public void parallel(Blackhole blackhole) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        saleService.exportSalesToCSVParallel(startDate, endDate, false, out);
+        blackhole.consume(out.count);
+    }
+
+    @Benchmark
+    public void parallelGzip(Blackhole blackhole) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        saleService.exportSalesToCSVParallel(startDate, endDate, true, out);
+        blackhole.consume(out.count);
+    }
+
+    private List<Sale> fetch(List<Sale> sales, LocalDateTime from, LocalDateTime to, boolean inclusive) {
+        List<Sale> result = sales.stream()
+                .filter(sale -> !sale.getSaleDate().isBefore(from))
+                .filter(sale -> inclusive ? !sale.getSaleDate().isAfter(to) : sale.getSaleDate().isBefore(to))
+                .toList();
+        if (rowLatencyNanos > 0) {
+            LockSupport.parkNanos(rowLatencyNanos * result.size());
+        }
+        return result;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
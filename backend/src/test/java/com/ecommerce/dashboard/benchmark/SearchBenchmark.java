@@ -0,0 +1,100 @@
+package com.ecommerce.dashboard.benchmark;
+
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.service.SearchService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Query latency of the search index over {@code rows} sales with realistic customer
+ * names. The index lives in a temporary directory and is built once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Priya", "Rahul",
+        "Ananya", "Arjun", "Wei", "Mei", "Hiroshi", "Yuki", "Carlos", "Sofia", "Ahmed", "Fatima"
+    };
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Path indexPath;
+    private SearchService searchService;
+
+    @Setup
+    public void setUp() throws IOException {
+        indexPath = Files.createTempDirectory("search-benchmark");
+        searchService = new SearchService();
+        ReflectionTestUtils.setField(searchService, "indexPath", indexPath.toString());
+        ReflectionTestUtils.invokeMethod(searchService, "openIndex");
+
+        Random random = new Random(7);
+        List<Sale> sales = BenchmarkData.sales(rows);
+        for (Sale sale : sales) {
+            sale.setCustomerName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + surname(random));
+            searchService.indexSale(sale);
+        }
+        searchService.commit();
+        searchService.refresh();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        ReflectionTestUtils.invokeMethod(searchService, "closeIndex");
+        try (Stream<Path> files = Files.walk(indexPath)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Object exact() {
+        return searchService.search("priya", "sale", 20);
+    }
+
+    @Benchmark
+    public Object prefix() {
+        return searchService.search("jen", "sale", 20);
+    }
+
+    @Benchmark
+    public Object fuzzy() {
+        return searchService.search("elizabth", "sale", 20);
+    }
+
+    @Benchmark
+    public Object twoTerms() {
+        return searchService.search("sofia ka", "sale", 20);
+    }
+
+    /**
+     * Random pronounceable surnames, so the term dictionary is large like real data.
+     */
+    private static String surname(Random random) {
+        String consonants = "bcdfghjklmnprstvwz";
+        String vowels = "aeiou";
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            name.append(consonants.charAt(random.nextInt(consonants.length())));
+            name.append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
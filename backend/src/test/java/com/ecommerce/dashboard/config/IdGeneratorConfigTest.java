@@ -0,0 +1,43 @@
+package com.ecommerce.dashboard.config;
+
+import com.ecommerce.dashboard.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdGeneratorConfigTest {
+
+    private final IdGeneratorConfig config = new IdGeneratorConfig();
+
+    @Test
+    public void testConfiguredNodeIdWins() {
+        assertEquals(7, nodeOf(config.saleIdGenerator("7", "dashboard-backend-2", kubernetes())));
+    }
+
+    @Test
+    public void testStatefulSetPodUsesItsOrdinal() {
+        assertEquals(2, nodeOf(config.saleIdGenerator("", "dashboard-backend-2", kubernetes())));
+    }
+
+    @Test
+    public void testOtherPodsFailToStart() {
+        assertThrows(IllegalStateException.class,
+                () -> config.saleIdGenerator("", "dashboard-backend-5d8f7c9b4-x2x9z", kubernetes()));
+        assertThrows(IllegalStateException.class,
+                () -> config.saleIdGenerator("", "dashboard-backend-16", kubernetes()));
+    }
+
+    @Test
+    public void testOutsideKubernetesDefaultsToZero() {
+        assertEquals(0, nodeOf(config.saleIdGenerator("", "ip-10-0-0-12", new MockEnvironment())));
+    }
+
+    private MockEnvironment kubernetes() {
+        return new MockEnvironment().withProperty("spring.main.cloud-platform", "kubernetes");
+    }
+
+    private long nodeOf(SnowflakeIdGenerator generator) {
+        return (generator.nextId() >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID;
+    }
+}
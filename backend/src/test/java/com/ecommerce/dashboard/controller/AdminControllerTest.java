@@ -0,0 +1,38 @@
+package com.ecommerce.dashboard.controller;
+
+import com.ecommerce.dashboard.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser(roles = "ADMIN")
+public class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    public void testCacheStatsIncludeQueryResultsRegion() throws Exception {
+        // findAll is a cacheable query, so the query results region is in use
+        productRepository.findAll().forEach(product -> productRepository.findById(product.getId()));
+
+        mockMvc.perform(get("/api/admin/cache-stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].region", hasItem("default-query-results-region")))
+                .andExpect(jsonPath("$[*].region", hasItem("products")));
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.dashboard.controller;
+
+import com.ecommerce.dashboard.dto.BulkSaleRequest;
+import com.ecommerce.dashboard.dto.PatchSaleRequest;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.repository.ProductRepository;
+import com.ecommerce.dashboard.repository.SaleRepository;
+import com.ecommerce.dashboard.service.DictionaryService;
+import com.ecommerce.dashboard.service.SaleBulkService;
+import com.ecommerce.dashboard.service.SaleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser(roles = "ADMIN")
+public class PatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleBulkService saleBulkService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    private Product product;
+    private Sale sale;
+
+    @BeforeEach
+    public void createSale() {
+        product = new Product(null, "Patch Test", "Patch Test", 2500L, null);
+        dictionaryService.registerNames(product);
+        product = productRepository.save(product);
+        Sale newSale = new Sale();
+        newSale.setProduct(product);
+        newSale.setQuantity(2);
+        newSale.setTotalAmountMinor(5000);
+        newSale.setSaleDate(LocalDateTime.of(2032, 3, 1, 9, 30));
+        newSale.setCustomerName("Patch Customer");
+        newSale.setRegion("North");
+        newSale.setPaymentMethod("Cash");
+        dictionaryService.registerNames(newSale);
+        sale = saleRepository.save(newSale);
+    }
+
+    @Test
+    public void testPatchChangesOnlyGivenFieldsAndBumpsVersion() throws Exception {
+        patchSale(sale.getId(), "{\"version\":0,\"quantity\":5,\"region\":\"South\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(5))
+                .andExpect(jsonPath("$.region").value("South"))
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.totalAmount").value(50.0))
+                .andExpect(jsonPath("$.customerName").value("Patch Customer"))
+                .andExpect(jsonPath("$.paymentMethod").value("Cash"))
+                .andExpect(jsonPath("$.productId").value(product.getId()));
+    }
+
+    @Test
+    public void testPatchWithStaleVersionConflicts() throws Exception {
+        patchSale(sale.getId(), "{\"version\":0,\"quantity\":3}").andExpect(status().isOk());
+
+        patchSale(sale.getId(), "{\"version\":0,\"quantity\":4}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion").value(1));
+        assertEquals(3, saleRepository.findById(sale.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void testBulkUpdateInvalidatesEarlierVersion() throws Exception {
+        BulkSaleRequest bulk = new BulkSaleRequest();
+        bulk.setIds(List.of(sale.getId()));
+        bulk.setTargetPaymentMethod("Card");
+        saleBulkService.update(bulk);
+
+        patchSale(sale.getId(), "{\"version\":0,\"quantity\":4}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion").value(1));
+        patchSale(sale.getId(), "{\"version\":1,\"quantity\":4}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentMethod").value("Card"))
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    public void testPatchRejectsBlankNamesAndEmptyChanges() throws Exception {
+        patchSale(sale.getId(), "{\"version\":0,\"region\":\"  \"}").andExpect(status().isBadRequest());
+        patchSale(sale.getId(), "{\"version\":0,\"customerName\":\"\"}").andExpect(status().isBadRequest());
+        patchSale(sale.getId(), "{\"version\":0}").andExpect(status().isBadRequest());
+        assertEquals(0, saleRepository.findById(sale.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void testPatchOfMissingSaleFails() {
+        PatchSaleRequest request = new PatchSaleRequest();
+        request.setVersion(0L);
+        request.setQuantity(1);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> saleService.patchSale(-1L, request));
+        assertEquals("Sale not found with id: -1", e.getMessage());
+    }
+
+    @Test
+    public void testProductPatchWithStaleVersionConflicts() throws Exception {
+        mockMvc.perform(patch("/api/products/" + product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"price\":30}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Patch Test"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(patch("/api/products/" + product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"name\":\"Renamed\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion").value(1));
+    }
+
+    private ResultActions patchSale(Long id, String body) throws Exception {
+        return mockMvc.perform(patch("/api/sales/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
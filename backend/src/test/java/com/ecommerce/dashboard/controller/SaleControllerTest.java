@@ -0,0 +1,108 @@
+package com.ecommerce.dashboard.controller;
+
+import com.ecommerce.dashboard.dto.CreateSaleRequest;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.repository.ProductRepository;
+import com.ecommerce.dashboard.service.DictionaryService;
+import com.ecommerce.dashboard.service.IdempotencyKeyConflictException;
+import com.ecommerce.dashboard.service.SaleService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser(roles = "ADMIN")
+public class SaleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Test
+    public void testInvalidPageOrSizeIsRejected() throws Exception {
+        mockMvc.perform(get("/api/sales").param("page", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/sales").param("size", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/sales").param("size", "-5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error: page must be at least 0 and size at least 1"));
+        mockMvc.perform(get("/api/sales").param("page", "0").param("size", "1")).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testIdempotencyKeyIsScopedToUser() throws Exception {
+        Product product = saveProduct("Idempotency Test");
+        String sale = "{\"productId\":" + product.getId() + ",\"quantity\":1,\"totalAmount\":10,"
+                + "\"saleDate\":\"2033-01-01T10:00:00\"}";
+        String otherSale = sale.replace("\"quantity\":1", "\"quantity\":2");
+
+        long id = readId(postSale("alice", "key-1", sale).andExpect(status().isCreated()));
+        postSale("alice", "key-1", sale)
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(id));
+        postSale("alice", "key-1", otherSale).andExpect(status().isUnprocessableEntity());
+
+        long otherId = readId(postSale("bob", "key-1", otherSale).andExpect(status().isCreated()));
+        assertNotEquals(id, otherId);
+    }
+
+    @Test
+    public void testConcurrentlyStoredKeyWithDifferentRequestConflicts() {
+        Product product = saveProduct("Idempotency Race");
+        CreateSaleRequest request = new CreateSaleRequest();
+        request.setProductId(product.getId());
+        request.setQuantity(1);
+        request.setTotalAmount(10.0);
+        request.setSaleDate(LocalDateTime.of(2033, 1, 2, 10, 0));
+        long id = saleService.createSale(request, "key-2").getId();
+
+        // Skips the lookup the controller does first, as a request racing the insert would
+        assertEquals(id, saleService.createSale(request, "key-2").getId());
+        request.setQuantity(2);
+        assertThrows(IdempotencyKeyConflictException.class, () -> saleService.createSale(request, "key-2"));
+    }
+
+    private Product saveProduct(String name) {
+        Product product = new Product(null, name, name, 1000L, null);
+        dictionaryService.registerNames(product);
+        return productRepository.save(product);
+    }
+
+    private ResultActions postSale(String username, String idempotencyKey, String body) throws Exception {
+        return mockMvc.perform(post("/api/sales")
+                .with(user(username).roles("USER"))
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private long readId(ResultActions result) throws Exception {
+        Number id = JsonPath.read(result.andReturn().getResponse().getContentAsString(), "$.id");
+        return id.longValue();
+    }
+}
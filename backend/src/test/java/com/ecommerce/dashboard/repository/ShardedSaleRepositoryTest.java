@@ -0,0 +1,109 @@
+package com.ecommerce.dashboard.repository;
+
+import com.ecommerce.dashboard.dto.SaleFilter;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.service.DictionaryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    // Its own primary database, next to the one of the other h2 profile tests
+    "spring.datasource.url=jdbc:h2:mem:sharded;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "sales.sharding.enabled=true",
+    "sales.sharding.urls=jdbc:h2:mem:shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1,"
+        + "jdbc:h2:mem:shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1,"
+        + "jdbc:h2:mem:shard2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "sales.sharding.username=sa",
+    "sales.sharding.merge-batch-size=7",
+    // Other cached contexts hold the lock on their index
+    "search.index.path=target/h2/search-index-sharded"
+})
+@ActiveProfiles("h2")
+public class ShardedSaleRepositoryTest {
+
+    @Autowired
+    private ShardedSaleRepository shardedSaleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Test
+    public void testSpreadsSalesAndMergesReadsInOrder() {
+        List<Product> newProducts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            newProducts.add(new Product(null, "Shard Test " + i, "Shard Test", 1000L + i, null));
+        }
+        dictionaryService.categories().register("Shard Test");
+        List<Product> products = productRepository.saveAll(newProducts);
+
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        List<Sale> sales = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Sale sale = new Sale();
+            sale.setProduct(products.get(random.nextInt(products.size())));
+            sale.setQuantity(1 + random.nextInt(5));
+            sale.setTotalAmountMinor(100 + random.nextInt(10_000));
+            sale.setSaleDate(base.plusMinutes(random.nextInt(10_000)));
+            sale.setCustomerName("Customer " + random.nextInt(20));
+            sale.setRegion(random.nextBoolean() ? "North" : "South");
+            sale.setPaymentMethod("Cash");
+            sales.add(sale);
+        }
+        shardedSaleRepository.saveAll(sales);
+
+        Set<Integer> usedShards = new HashSet<>();
+        sales.forEach(sale -> usedShards.add(shardedSaleRepository.shardOf(sale)));
+        assertEquals(3, usedShards.size());
+
+        SaleFilter filter = new SaleFilter();
+        filter.setCategory("Shard Test");
+        List<Sale> expected = new ArrayList<>(sales);
+        expected.sort(Comparator.comparing(Sale::getTotalAmountMinor).reversed().thenComparing(Sale::getId, Comparator.reverseOrder()));
+        var page = shardedSaleRepository.findAll(filter, PageRequest.of(2, 25, Sort.by(Sort.Direction.DESC, "totalAmountMinor")));
+        assertEquals(300, page.getTotalElements());
+        assertEquals(expected.subList(50, 75).stream().map(Sale::getId).toList(), page.getContent().stream().map(Sale::getId).toList());
+
+        filter.setProductId(products.get(0).getId());
+        long productSales = sales.stream().filter(sale -> sale.getProduct().getId().equals(products.get(0).getId())).count();
+        assertEquals(productSales, shardedSaleRepository.findAll(filter, PageRequest.of(0, 500)).getTotalElements());
+
+        LocalDateTime to = base.plusDays(30);
+        Object[] totals = shardedSaleRepository.summarize(base, to).get(0);
+        assertEquals(300L, ((Number) totals[0]).longValue());
+        assertEquals(sales.stream().mapToLong(Sale::getTotalAmountMinor).sum(), ((Number) totals[1]).longValue());
+
+        Iterator<Sale> inDateOrder = shardedSaleRepository.iterateInDateOrder(base, to);
+        List<Sale> streamed = new ArrayList<>();
+        inDateOrder.forEachRemaining(streamed::add);
+        assertEquals(300, streamed.size());
+        for (int i = 1; i < streamed.size(); i++) {
+            assertFalse(streamed.get(i).getSaleDate().isBefore(streamed.get(i - 1).getSaleDate()));
+        }
+        assertEquals(streamed, shardedSaleRepository.findExportChunk(base, to));
+
+        Set<Long> ids = new HashSet<>(sales.stream().map(Sale::getId).toList());
+        List<Sale> unranged = new ArrayList<>();
+        shardedSaleRepository.iterateInDateOrder(null, null).forEachRemaining(unranged::add);
+        assertEquals(streamed, unranged.stream().filter(sale -> ids.contains(sale.getId())).toList());
+    }
+}
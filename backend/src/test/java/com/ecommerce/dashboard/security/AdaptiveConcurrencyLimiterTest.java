@@ -0,0 +1,69 @@
+package com.ecommerce.dashboard.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT_NANOS = 1_000_000L;
+
+    @Test
+    public void testAcquireIsRejectedAtLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(RTT_NANOS);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testLimitGrowsWhileSaturatedAtSteadyLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 50);
+
+        for (int i = 0; i < 50; i++) {
+            saturate(limiter, RTT_NANOS);
+        }
+        assertEquals(50, limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhenUnderUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(RTT_NANOS);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 50);
+        for (int i = 0; i < 50; i++) {
+            saturate(limiter, RTT_NANOS);
+        }
+        int grown = limiter.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            saturate(limiter, 10 * RTT_NANOS);
+        }
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < grown, grown + " -> " + shrunk);
+        assertTrue(shrunk >= 2);
+    }
+
+    private void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.dashboard.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testFullBucketAllowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1);
+
+        assertEquals(0, bucket.tryConsume());
+        assertEquals(0, bucket.tryConsume());
+        assertEquals(0, bucket.tryConsume());
+
+        long waitNanos = bucket.tryConsume();
+        assertTrue(waitNanos > 0 && waitNanos <= 1_000_000_000L, "wait was " + waitNanos);
+    }
+
+    @Test
+    public void testTokensAreRefilledOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 100);
+        assertEquals(0, bucket.tryConsume());
+
+        long waitNanos = bucket.tryConsume();
+        assertTrue(waitNanos > 0 && waitNanos <= 10_000_000L, "wait was " + waitNanos);
+
+        Thread.sleep(20);
+        assertEquals(0, bucket.tryConsume());
+    }
+
+    @Test
+    public void testRefillIsCappedAtCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, 100);
+        Thread.sleep(50);
+
+        assertEquals(0, bucket.tryConsume());
+        assertEquals(0, bucket.tryConsume());
+        assertTrue(bucket.tryConsume() > 0);
+    }
+}
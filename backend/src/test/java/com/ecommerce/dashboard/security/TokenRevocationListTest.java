@@ -0,0 +1,58 @@
+package com.ecommerce.dashboard.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenRevocationListTest {
+
+    private static final long HOUR_MS = 3_600_000L;
+
+    @Test
+    public void testRevokedTokenIsRevokedUntilExpiry() throws InterruptedException {
+        TokenRevocationList list = revocationList(100);
+        long now = System.currentTimeMillis();
+
+        assertFalse(list.isRevoked("a"));
+        list.revoke("a", now + HOUR_MS);
+        list.revoke("b", now + 50);
+        assertTrue(list.isRevoked("a"));
+        assertTrue(list.isRevoked("b"));
+        assertFalse(list.isRevoked("c"));
+
+        Thread.sleep(100);
+        assertTrue(list.isRevoked("a"));
+        assertFalse(list.isRevoked("b"));
+    }
+
+    @Test
+    public void testAlreadyExpiredTokenIsIgnored() {
+        TokenRevocationList list = revocationList(100);
+        list.revoke("a", System.currentTimeMillis() - 1);
+        list.revoke(null, System.currentTimeMillis() + HOUR_MS);
+
+        assertFalse(list.isRevoked("a"));
+        assertFalse(list.isRevoked(null));
+    }
+
+    @Test
+    public void testRevocationsSurviveFilterRebuilds() {
+        TokenRevocationList list = revocationList(16);
+        long expiresAt = System.currentTimeMillis() + HOUR_MS;
+        for (int i = 0; i < 1_000; i++) {
+            list.revoke("token-" + i, expiresAt);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(list.isRevoked("token-" + i), "token-" + i);
+        }
+        assertFalse(list.isRevoked("token-1000"));
+    }
+
+    private TokenRevocationList revocationList(int expectedEntries) {
+        TokenRevocationList list = new TokenRevocationList();
+        ReflectionTestUtils.setField(list, "expectedEntries", expectedEntries);
+        return list;
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.JwtResponse;
+import com.ecommerce.dashboard.entity.RefreshToken;
+import com.ecommerce.dashboard.repository.RefreshTokenRepository;
+import com.ecommerce.dashboard.repository.UserRepository;
+import com.ecommerce.dashboard.security.JwtUtils;
+import com.ecommerce.dashboard.security.TokenRefreshException;
+import com.ecommerce.dashboard.security.TokenRevocationList;
+import com.ecommerce.dashboard.security.UserDetailsImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    private UserDetailsImpl admin;
+
+    @BeforeEach
+    public void loadUser() {
+        admin = UserDetailsImpl.build(userRepository.findByUsername("admin").orElseThrow());
+    }
+
+    @Test
+    public void testRefreshRotatesTokens() {
+        JwtResponse signIn = refreshTokenService.issueTokens(admin);
+
+        JwtResponse rotated = refreshTokenService.refresh(signIn.getRefreshToken());
+        assertNotEquals(signIn.getRefreshToken(), rotated.getRefreshToken());
+        assertNotEquals(accessTokenId(signIn), accessTokenId(rotated));
+        assertEquals("admin", rotated.getUsername());
+        assertEquals(stored(signIn).getFamilyId(), stored(rotated).getFamilyId());
+        assertNotNull(stored(signIn).getRevokedAt());
+        assertNull(stored(rotated).getRevokedAt());
+
+        assertNotNull(refreshTokenService.refresh(rotated.getRefreshToken()).getToken());
+    }
+
+    @Test
+    public void testReuseOfRotatedTokenRevokesFamily() {
+        JwtResponse signIn = refreshTokenService.issueTokens(admin);
+        JwtResponse rotated = refreshTokenService.refresh(signIn.getRefreshToken());
+
+        TokenRefreshException e = assertThrows(TokenRefreshException.class,
+                () -> refreshTokenService.refresh(signIn.getRefreshToken()));
+        assertEquals("Refresh token was already used", e.getMessage());
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.refresh(rotated.getRefreshToken()));
+        assertNotNull(stored(rotated).getRevokedAt());
+        assertTrue(tokenRevocationList.isRevoked(accessTokenId(signIn)));
+        assertTrue(tokenRevocationList.isRevoked(accessTokenId(rotated)));
+    }
+
+    @Test
+    public void testSignOutRevokesFamily() {
+        JwtResponse signIn = refreshTokenService.issueTokens(admin);
+        JwtResponse other = refreshTokenService.issueTokens(admin);
+
+        refreshTokenService.revoke(signIn.getRefreshToken());
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.refresh(signIn.getRefreshToken()));
+        assertTrue(tokenRevocationList.isRevoked(accessTokenId(signIn)));
+        // Another sign-in is a separate family
+        assertFalse(tokenRevocationList.isRevoked(accessTokenId(other)));
+        assertNotNull(refreshTokenService.refresh(other.getRefreshToken()).getToken());
+    }
+
+    @Test
+    public void testExpiredTokenIsRejected() {
+        JwtResponse signIn = refreshTokenService.issueTokens(admin);
+        RefreshToken token = stored(signIn);
+        token.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        refreshTokenRepository.save(token);
+
+        TokenRefreshException e = assertThrows(TokenRefreshException.class,
+                () -> refreshTokenService.refresh(signIn.getRefreshToken()));
+        assertEquals("Refresh token has expired", e.getMessage());
+    }
+
+    @Test
+    public void testUnknownTokenIsRejected() {
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.refresh("not-a-token"));
+        refreshTokenService.revoke("not-a-token");
+    }
+
+    private String accessTokenId(JwtResponse response) {
+        return jwtUtils.parseJwtClaims(response.getToken()).getId();
+    }
+
+    private RefreshToken stored(JwtResponse response) {
+        String accessTokenId = accessTokenId(response);
+        return refreshTokenRepository.findAll().stream()
+                .filter(token -> accessTokenId.equals(token.getAccessTokenId()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.BulkOperationResultDTO;
+import com.ecommerce.dashboard.dto.BulkSaleRequest;
+import com.ecommerce.dashboard.dto.SearchResponseDTO;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Sale;
+import com.ecommerce.dashboard.repository.ProductRepository;
+import com.ecommerce.dashboard.repository.SaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class SaleBulkServiceTest {
+
+    @Autowired
+    private SaleBulkService saleBulkService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    private Product product;
+    private List<Long> ids;
+    private String customer;
+
+    @BeforeEach
+    public void createSales() {
+        customer = "bulk" + UUID.randomUUID().toString().replace("-", "");
+        product = new Product(null, "Bulk Test", "Bulk Test", 1000L, null);
+        dictionaryService.registerNames(product);
+        product = productRepository.save(product);
+
+        List<Sale> sales = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Sale sale = new Sale();
+            sale.setProduct(product);
+            sale.setQuantity(1);
+            sale.setTotalAmountMinor(1000 + i);
+            sale.setSaleDate(LocalDateTime.of(2031, 1, 1, 12, i));
+            sale.setCustomerName(customer);
+            sale.setRegion("North");
+            sale.setPaymentMethod("Cash");
+            dictionaryService.registerNames(sale);
+            sales.add(sale);
+        }
+        ids = saleRepository.saveAll(sales).stream().map(Sale::getId).toList();
+        saleRepository.findAllById(ids).forEach(searchService::indexSale);
+    }
+
+    @Test
+    public void testUpdateAppliesTargetsInChunksAndBumpsVersion() throws Exception {
+        BulkSaleRequest request = new BulkSaleRequest();
+        request.setIds(ids);
+        request.setTargetRegion("Bulk Region");
+        request.setAmountFactor(2.0);
+        request.setChunkSize(2);
+
+        BulkOperationResultDTO result = saleBulkService.update(request);
+
+        assertEquals(3, result.getAffected());
+        assertEquals(2, result.getChunks());
+        for (Sale sale : saleRepository.findAllById(ids)) {
+            assertEquals("Bulk Region", sale.getRegion());
+            assertEquals(1, sale.getVersion());
+            assertTrue(sale.getTotalAmountMinor() >= 2000 && sale.getTotalAmountMinor() <= 2004);
+        }
+        // The old documents already give 3 hits, so wait for the updated ones
+        awaitSearch("3 hits in Bulk Region", response -> response.getTotalHits() == 3
+                && response.getResults().stream().allMatch(hit -> hit.getSubtitle().contains("Bulk Region")));
+    }
+
+    @Test
+    public void testDeleteByFilterRemovesSalesAndSearchDocuments() throws Exception {
+        awaitSearch(3);
+        BulkSaleRequest request = new BulkSaleRequest();
+        request.setProductId(product.getId());
+
+        BulkOperationResultDTO result = saleBulkService.delete(request);
+
+        assertEquals(3, result.getAffected());
+        assertTrue(saleRepository.findAllById(ids).isEmpty());
+        awaitSearch(0);
+    }
+
+    @Test
+    public void testUpdateToUnknownProductChangesNothing() {
+        BulkSaleRequest request = new BulkSaleRequest();
+        request.setIds(ids);
+        request.setTargetProductId(-1L);
+
+        assertThrows(RuntimeException.class, () -> saleBulkService.update(request));
+        assertTrue(saleRepository.findAllById(ids).stream().allMatch(sale -> sale.getVersion() == 0));
+    }
+
+    // The index is refreshed on a schedule and not while the startup rebuild runs
+    private void awaitSearch(long hits) throws Exception {
+        awaitSearch(hits + " hits", response -> response.getTotalHits() == hits);
+    }
+
+    private void awaitSearch(String expected, Predicate<SearchResponseDTO> condition) throws Exception {
+        SearchResponseDTO response = null;
+        for (int i = 0; i < 100; i++) {
+            searchService.refresh();
+            response = searchService.search(customer, "sale", 10);
+            if (condition.test(response)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Expected " + expected + " for " + customer + ", got " + response.getTotalHits() + ": " + response.getResults());
+    }
+}
@@ -0,0 +1,166 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.benchmark.BenchmarkData;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Sale;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaleColumnarEncoderTest {
+
+    @Test
+    public void testArrowRoundTrip() throws Exception {
+        List<Sale> sales = sales();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SaleArrowEncoder encoder = new SaleArrowEncoder(out, 1_000)) {
+            for (Sale sale : sales) {
+                encoder.write(sale);
+            }
+            encoder.finish();
+        }
+
+        List<String> rows = new ArrayList<>();
+        int batches = 0;
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator,
+                     CommonsCompressionFactory.INSTANCE)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                batches++;
+                for (int row = 0; row < root.getRowCount(); row++) {
+                    List<Object> values = new ArrayList<>();
+                    for (FieldVector vector : root.getFieldVectors()) {
+                        values.add(arrowValue(reader, vector, row));
+                    }
+                    rows.add(String.join("|", values.stream().map(Objects::toString).toList()));
+                }
+            }
+        }
+
+        assertEquals(6, batches);
+        assertEquals(expected(sales), rows);
+    }
+
+    @Test
+    public void testParquetRoundTrip(@TempDir Path dir) throws Exception {
+        List<Sale> sales = sales();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SaleParquetEncoder encoder = new SaleParquetEncoder(out, 64 * 1024)) {
+            for (Sale sale : sales) {
+                encoder.write(sale);
+            }
+            encoder.finish();
+        }
+        Path file = Files.write(dir.resolve("sales.parquet"), out.toByteArray());
+
+        List<String> rows = new ArrayList<>();
+        ParquetReadOptions options = ParquetReadOptions.builder(new PlainParquetConfiguration())
+                .withCodecFactory(new SaleParquetEncoder.ZstdCodecFactory())
+                .build();
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file), options)) {
+            MessageType schema = reader.getFileMetaData().getSchema();
+            assertEquals(SaleParquetEncoder.SCHEMA, schema);
+            assertTrue(reader.getRowGroups().size() > 1);
+
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> records = new ColumnIOFactory().getColumnIO(schema)
+                        .getRecordReader(rowGroup, new GroupRecordConverter(schema));
+                for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                    rows.add(parquetRow(records.read()));
+                }
+            }
+        }
+
+        assertEquals(expected(sales), rows);
+    }
+
+    private List<Sale> sales() {
+        List<Sale> sales = new ArrayList<>(BenchmarkData.sales(5_000));
+        // Nulls, and dictionary values first seen in the last batch
+        Product product = new Product(8L, "Zoë \"Z\" 山田 😀", null, 100L, 0L);
+        sales.add(new Sale(-1L, product, 0, Long.MIN_VALUE / 1_000, LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000),
+                null, null, null, null, 0L));
+        sales.add(new Sale(Long.MAX_VALUE, product, Integer.MAX_VALUE, 1_234_567_890L,
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59), "", "Antarctica", "Gift Card", null, 0L));
+        return sales;
+    }
+
+    private List<String> expected(List<Sale> sales) {
+        return sales.stream()
+                .map(sale -> String.join("|", List.of(
+                        String.valueOf(sale.getId()),
+                        String.valueOf(sale.getProduct().getName()),
+                        String.valueOf(sale.getProduct().getCategory()),
+                        String.valueOf(sale.getQuantity()),
+                        BigDecimal.valueOf(sale.getTotalAmountMinor(), 2).toString(),
+                        sale.getSaleDate().toString(),
+                        String.valueOf(sale.getCustomerName()),
+                        String.valueOf(sale.getRegion()),
+                        String.valueOf(sale.getPaymentMethod()))))
+                .toList();
+    }
+
+    private Object arrowValue(ArrowStreamReader reader, FieldVector vector, int row) throws Exception {
+        Field field = vector.getField();
+        if (vector.isNull(row)) {
+            return null;
+        }
+        if (field.getDictionary() != null) {
+            Dictionary dictionary = reader.getDictionaryVectors().get(field.getDictionary().getId());
+            return dictionary.getVector().getObject(((IntVector) vector).get(row));
+        }
+        return vector.getObject(row);
+    }
+
+    private String parquetRow(Group group) {
+        long micros = group.getLong("sale_date", 0);
+        LocalDateTime saleDate = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+        return String.join("|", List.of(
+                String.valueOf(group.getLong("id", 0)),
+                parquetString(group, "product"),
+                parquetString(group, "category"),
+                String.valueOf(group.getInteger("quantity", 0)),
+                BigDecimal.valueOf(group.getLong("total_amount", 0), 2).toString(),
+                saleDate.toString(),
+                parquetString(group, "customer"),
+                parquetString(group, "region"),
+                parquetString(group, "payment_method")));
+    }
+
+    private String parquetString(Group group, String field) {
+        return group.getFieldRepetitionCount(field) == 0 ? "null" : group.getString(field, 0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.benchmark.BenchmarkData;
+import com.ecommerce.dashboard.entity.Product;
+import com.ecommerce.dashboard.entity.Sale;
+import com.opencsv.CSVWriter;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaleCsvEncoderTest {
+
+    @Test
+    public void testSampleDataMatchesOpenCsv() throws Exception {
+        List<Sale> sales = BenchmarkData.sales(5_000);
+
+        assertArrayEquals(encodeWithOpenCsv(sales), encode(sales, 64 * 1024));
+    }
+
+    @Test
+    public void testEdgeCasesMatchOpenCsv() throws Exception {
+        Product product = new Product(7L, "14\" \"Pro\" Laptop, grey", "Électronique", 89999L, 0L);
+        List<Sale> sales = new ArrayList<>();
+        sales.add(sale(-5L, product, 0, Long.MIN_VALUE, LocalDateTime.of(999, 1, 2, 3, 4, 5), null, null, null));
+        sales.add(sale(Long.MAX_VALUE, product, Integer.MAX_VALUE, 1_234_567_890L,
+                LocalDateTime.of(10_000, 12, 31, 23, 59, 59), "Zoë \"Z\" 山田 😀", "North\nEast", "UPI"));
+        sales.add(sale(3L, product, 1, 0L, LocalDateTime.of(2024, 2, 29, 0, 0), "bad \uD800 surrogate", "", "Cash"));
+        sales.add(sale(4L, product, 3, -269_997L, LocalDateTime.of(2024, 6, 1, 12, 0), "a,b", "West", "Card"));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long amount = random.nextInt(10_000_000) * (long) (random.nextInt(20) + 1);
+            sales.add(sale((long) i, product, i, amount, LocalDateTime.of(2024, 1, 1, 0, 0), "c", "r", "p"));
+        }
+
+        // A tiny buffer exercises the flush paths
+        assertArrayEquals(encodeWithOpenCsv(sales), encode(sales, 16));
+    }
+
+    private byte[] encode(List<Sale> sales, int bufferSize) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SaleCsvEncoder encoder = new SaleCsvEncoder(out, bufferSize);
+        encoder.writeHeader();
+        for (Sale sale : sales) {
+            encoder.write(sale);
+        }
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    // The export format before SaleCsvEncoder existed
+    private byte[] encodeWithOpenCsv(List<Sale> sales) throws Exception {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        StringWriter stringWriter = new StringWriter();
+        CSVWriter csvWriter = new CSVWriter(stringWriter);
+        csvWriter.writeNext(new String[] {"ID", "Product", "Category", "Quantity", "Total Amount",
+                                          "Sale Date", "Customer", "Region", "Payment Method"});
+        for (Sale sale : sales) {
+            csvWriter.writeNext(new String[] {
+                sale.getId().toString(),
+                sale.getProduct().getName(),
+                sale.getProduct().getCategory(),
+                sale.getQuantity().toString(),
+                amount(sale.getTotalAmountMinor()),
+                sale.getSaleDate().format(formatter),
+                sale.getCustomerName(),
+                sale.getRegion(),
+                sale.getPaymentMethod()
+            });
+        }
+        csvWriter.close();
+        return stringWriter.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Double.toString of the amount, without switching to scientific notation
+    private String amount(long minorUnits) {
+        BigDecimal amount = BigDecimal.valueOf(minorUnits, 2).stripTrailingZeros();
+        return (amount.scale() < 1 ? amount.setScale(1) : amount).toPlainString();
+    }
+
+    private Sale sale(Long id, Product product, int quantity, long amount, LocalDateTime date,
+                      String customer, String region, String paymentMethod) {
+        return new Sale(id, product, quantity, amount, date, customer, region, paymentMethod, null, 0L);
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.dashboard.service;
+
+import com.ecommerce.dashboard.dto.CreateSaleRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaleWriteBehindQueueTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testFailedBatchIsRetried() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<String> written = new CopyOnWriteArrayList<>();
+        SaleWriteBehindQueue queue = queue();
+        queue.start(batch -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new RuntimeException("Connection reset");
+            }
+            batch.forEach(pending -> written.add(pending.request().getCustomerName()));
+        });
+
+        queue.enqueue(request("a"), null, "user");
+        queue.enqueue(request("b"), null, "user");
+        awaitSize(written, 2);
+        stop(queue);
+
+        assertEquals(List.of("a", "b"), written);
+        assertEquals(0, Files.size(journal()));
+    }
+
+    @Test
+    public void testSaleThatKeepsFailingIsReplayedOnRestart() throws Exception {
+        List<String> written = new CopyOnWriteArrayList<>();
+        SaleWriteBehindQueue queue = queue();
+        queue.start(batch -> {
+            if (batch.stream().anyMatch(pending -> pending.request().getCustomerName().equals("bad"))) {
+                throw new RuntimeException("Data too long");
+            }
+            batch.forEach(pending -> written.add(pending.request().getCustomerName()));
+        });
+
+        queue.enqueue(request("a"), null, "user");
+        queue.enqueue(request("bad"), null, "user");
+        queue.enqueue(request("c"), null, "user");
+        awaitSize(written, 2);
+        // Committed after the failed sale, which must not hide it
+        queue.enqueue(request("d"), null, "user");
+        awaitSize(written, 3);
+        stop(queue);
+        assertEquals(List.of("a", "c", "d"), written);
+
+        List<String> replayed = new CopyOnWriteArrayList<>();
+        SaleWriteBehindQueue restarted = queue();
+        restarted.start(batch -> batch.forEach(pending -> replayed.add(pending.request().getCustomerName())));
+        stop(restarted);
+
+        assertEquals(List.of("bad"), replayed);
+        assertEquals(0, Files.size(journal()));
+    }
+
+    @Test
+    public void testIdempotencyKeyIsScopedToOwnerAndRequest() throws Exception {
+        List<String> written = new CopyOnWriteArrayList<>();
+        SaleWriteBehindQueue queue = queue();
+        queue.start(batch -> {
+            if (batch.stream().anyMatch(pending -> pending.request().getCustomerName().equals("bad"))) {
+                throw new RuntimeException("Data too long");
+            }
+            batch.forEach(pending -> written.add(pending.request().getCustomerName()));
+        });
+
+        long id = queue.enqueue(request("bad"), "key-1", "user");
+        assertEquals(id, queue.enqueue(request("bad"), "key-1", "user"));
+        assertThrows(IdempotencyKeyConflictException.class, () -> queue.enqueue(request("bad"), "key-1", "other"));
+        assertThrows(IdempotencyKeyConflictException.class, () -> queue.enqueue(request("a"), "key-1", "user"));
+
+        // Given up on, so a retry with the same key is queued again; until then it returns the queued id
+        long retryId = id;
+        for (int i = 0; i < 500 && retryId == id; i++) {
+            Thread.sleep(10);
+            retryId = queue.enqueue(request("bad"), "key-1", "user");
+        }
+        assertNotEquals(id, retryId);
+        stop(queue);
+        assertTrue(written.isEmpty());
+    }
+
+    private SaleWriteBehindQueue queue() {
+        SaleWriteBehindQueue queue = new SaleWriteBehindQueue();
+        ReflectionTestUtils.setField(queue, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(queue, "enabled", true);
+        ReflectionTestUtils.setField(queue, "queueCapacity", 100);
+        ReflectionTestUtils.setField(queue, "batchSize", 10);
+        ReflectionTestUtils.setField(queue, "flushIntervalMs", 20L);
+        ReflectionTestUtils.setField(queue, "journalPath", journal().toString());
+        ReflectionTestUtils.setField(queue, "maxRetries", 2);
+        ReflectionTestUtils.setField(queue, "retryBackoffMs", 1L);
+        return queue;
+    }
+
+    private Path journal() {
+        return dir.resolve("sale-journal.log");
+    }
+
+    private CreateSaleRequest request(String customerName) {
+        CreateSaleRequest request = new CreateSaleRequest();
+        request.setProductId(1L);
+        request.setQuantity(1);
+        request.setTotalAmount(9.99);
+        request.setSaleDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        request.setCustomerName(customerName);
+        return request;
+    }
+
+    private void awaitSize(List<?> list, int size) throws InterruptedException {
+        for (int i = 0; i < 500 && list.size() < size; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, list.size());
+    }
+
+    private void stop(SaleWriteBehindQueue queue) {
+        ReflectionTestUtils.invokeMethod(queue, "stop");
+    }
+}
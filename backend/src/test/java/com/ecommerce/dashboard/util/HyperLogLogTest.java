@@ -0,0 +1,56 @@
+package com.ecommerce.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    public void testSmallCardinalityIsNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 50; i++) {
+            sketch.add("customer-" + i);
+            sketch.add("customer-" + i);
+        }
+
+        assertEquals(50, sketch.estimate());
+    }
+
+    @Test
+    public void testLargeCardinalityWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog();
+        int distinct = 200_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.add("customer-" + i);
+        }
+
+        double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+        assertTrue(error < 3 * HyperLogLog.RELATIVE_STANDARD_ERROR, "relative error was " + error);
+    }
+
+    @Test
+    public void testMergeOfSerializedSketchesMatchesUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (int i = 0; i < 20_000; i++) {
+            first.add("a-" + i);
+            union.add("a-" + i);
+        }
+        for (int i = 0; i < 10; i++) {
+            second.add("b-" + i);
+            union.add("b-" + i);
+        }
+
+        byte[] sparse = second.toBytes();
+        byte[] dense = first.toBytes();
+        assertTrue(sparse.length < dense.length);
+
+        HyperLogLog merged = new HyperLogLog();
+        merged.merge(dense);
+        merged.merge(sparse);
+        assertEquals(union.estimate(), merged.estimate());
+        assertEquals(second.estimate(), HyperLogLog.fromBytes(sparse).estimate());
+    }
+}
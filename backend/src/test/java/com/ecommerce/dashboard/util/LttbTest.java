@@ -0,0 +1,49 @@
+package com.ecommerce.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LttbTest {
+
+    @Test
+    public void testKeepsEndpointsAndSpikes() {
+        int n = 10_000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 500.0);
+        }
+        y[4321] = 50;
+        y[7777] = -50;
+
+        int[] selected = Lttb.select(x, y, 100);
+
+        assertEquals(100, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(n - 1, selected[selected.length - 1]);
+        for (int i = 1; i < selected.length; i++) {
+            assertTrue(selected[i] > selected[i - 1]);
+        }
+        assertTrue(contains(selected, 4321));
+        assertTrue(contains(selected, 7777));
+    }
+
+    @Test
+    public void testReturnsAllPointsUnderThreshold() {
+        double[] x = {0, 1, 2, 3};
+        double[] y = {5, 1, 4, 2};
+
+        assertArrayEquals(new int[] {0, 1, 2, 3}, Lttb.select(x, y, 10));
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    public void testToMinorUnitsRoundsHalfUpOnDecimalValue() {
+        assertEquals(89999L, Money.toMinorUnits(899.99));
+        assertEquals(101L, Money.toMinorUnits(1.005));
+        assertEquals(269997L, Money.toMinorUnits(2699.9700000000003));
+        assertEquals(-250L, Money.toMinorUnits(-2.495));
+        assertNull(Money.toMinorUnits((Double) null));
+    }
+
+    @Test
+    public void testSumOfMinorUnitsIsExact() {
+        long sum = 0;
+        double doubleSum = 0;
+        for (int i = 0; i < 1_000; i++) {
+            sum += Money.toMinorUnits(0.1);
+            doubleSum += 0.1;
+        }
+
+        assertEquals(100.0, Money.toMajorUnits(sum));
+        assertEquals("100.00", Money.format(sum));
+        assertNotEquals(100.0, doubleSum);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>(Duration.ZERO);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 16;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> flights.get("key", () -> {
+                started.countDown();
+                await(release);
+                return computations.incrementAndGet();
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> flights.get("key", computations::incrementAndGet)));
+            }
+            // Followers are waiting on the first computation; another key is not
+            assertEquals(1, flights.get("other", computations::incrementAndGet));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(2, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, flights.size());
+        assertEquals(3, flights.get("key", computations::incrementAndGet));
+    }
+
+    @Test
+    public void testResultsAreReusedWithinTtlButFailuresAreNot() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>(Duration.ofMillis(200));
+        AtomicInteger computations = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> flights.get("key", () -> {
+            computations.incrementAndGet();
+            throw new IllegalStateException("failed");
+        }));
+        assertEquals(2, flights.get("key", computations::incrementAndGet));
+        assertEquals(2, flights.get("key", computations::incrementAndGet));
+
+        Thread.sleep(300);
+        assertEquals(3, flights.get("key", computations::incrementAndGet));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
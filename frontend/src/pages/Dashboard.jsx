@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
-import { salesAPI } from '../services/api';
+import { salesAPI, dashboardAPI } from '../services/api';
 import { format, subDays } from 'date-fns';
 import {
   BarChart, Bar, LineChart, Line, PieChart, Pie, Cell,
@@ -11,15 +11,26 @@ import SaleModal from '../components/SaleModal';
 import './Dashboard.css';
 
 const COLORS = ['#667eea', '#764ba2', '#f093fb', '#4facfe', '#00f2fe'];
+const BUCKET_LABEL_FORMATS = {
+  minute: 'MM/dd HH:mm',
+  hour: 'MM/dd HH:mm',
+  day: 'MM/dd',
+  month: 'yyyy-MM',
+};
+
+const DEFAULT_START_DATE = format(subDays(new Date(), 30), "yyyy-MM-dd'T'00:00");
+const DEFAULT_END_DATE = format(new Date(), "yyyy-MM-dd'T'23:59");
 
 const Dashboard = () => {
   const { user, logout, isAdmin } = useAuth();
   const navigate = useNavigate();
   const [sales, setSales] = useState([]);
+  const [summary, setSummary] = useState(null);
+  const [timeSeries, setTimeSeries] = useState(null);
   const [loading, setLoading] = useState(false);
   const [filters, setFilters] = useState({
-    startDate: format(subDays(new Date(), 30), "yyyy-MM-dd'T'00:00"),
-    endDate: format(new Date(), "yyyy-MM-dd'T'23:59"),
+    startDate: DEFAULT_START_DATE,
+    endDate: DEFAULT_END_DATE,
     page: 0,
     size: 100,
   });
@@ -33,8 +44,28 @@ const Dashboard = () => {
   const fetchSales = async () => {
     setLoading(true);
     try {
-      const response = await salesAPI.getSales(filters);
-      setSales(response.data.content || []);
+      // The default window is precomputed on the server, so only the table rows are needed
+      if (filters.startDate === DEFAULT_START_DATE && filters.endDate === DEFAULT_END_DATE) {
+        const [salesResponse, summaryResponse] = await Promise.all([
+          salesAPI.getSales({ ...filters, size: 20 }),
+          dashboardAPI.getSummary('30d'),
+        ]);
+        setSales(salesResponse.data.content || []);
+        setSummary(summaryResponse.data);
+      } else {
+        const [response, timeSeriesResponse] = await Promise.all([
+          salesAPI.getSales(filters),
+          salesAPI.getTimeSeries({
+            startDate: filters.startDate,
+            endDate: filters.endDate,
+            maxPoints: 200,
+            downsample: true,
+          }),
+        ]);
+        setSales(response.data.content || []);
+        setSummary(null);
+        setTimeSeries(timeSeriesResponse.data);
+      }
     } catch (error) {
       console.error('Error fetching sales:', error);
       if (error.response?.status === 401) {
@@ -97,12 +128,14 @@ const Dashboard = () => {
   };
 
   // Analytics calculations
-  const totalRevenue = sales.reduce((sum, sale) => sum + sale.totalAmount, 0);
-  const totalSales = sales.length;
+  const totalRevenue = summary ? summary.totalRevenue : sales.reduce((sum, sale) => sum + sale.totalAmount, 0);
+  const totalSales = summary ? summary.totalSales : sales.length;
   const averageOrderValue = totalSales > 0 ? totalRevenue / totalSales : 0;
 
   // Sales by category
-  const categoryData = sales.reduce((acc, sale) => {
+  const categoryData = summary ? Object.fromEntries(
+    Object.entries(summary.revenueByCategory).map(([name, value]) => [name, { name, value }])
+  ) : sales.reduce((acc, sale) => {
     const category = sale.productCategory;
     if (!acc[category]) {
       acc[category] = { name: category, value: 0 };
@@ -113,7 +146,9 @@ const Dashboard = () => {
   const categoryChartData = Object.values(categoryData);
 
   // Sales by region
-  const regionData = sales.reduce((acc, sale) => {
+  const regionData = summary ? Object.fromEntries(
+    Object.entries(summary.revenueByRegion).map(([name, sales]) => [name, { name, sales }])
+  ) : sales.reduce((acc, sale) => {
     const region = sale.region;
     if (!acc[region]) {
       acc[region] = { name: region, sales: 0 };
@@ -123,8 +158,18 @@ const Dashboard = () => {
   }, {});
   const regionChartData = Object.values(regionData);
 
-  // Sales over time
-  const dailySales = sales.reduce((acc, sale) => {
+  // Sales over time; a custom range is bucketed on the server
+  const dailySales = timeSeries && !summary ? Object.fromEntries(
+    timeSeries.points.map(({ time, revenue, count }) => {
+      const label = format(new Date(time), BUCKET_LABEL_FORMATS[timeSeries.bucket]);
+      return [label, { date: label, revenue, count }];
+    })
+  ) : summary ? Object.fromEntries(
+    summary.dailySales.map(({ date, revenue, count }) => {
+      const label = format(new Date(`${date}T00:00`), 'MM/dd');
+      return [label, { date: label, revenue, count }];
+    })
+  ) : sales.reduce((acc, sale) => {
     const date = format(new Date(sale.saleDate), 'MM/dd');
     if (!acc[date]) {
       acc[date] = { date, revenue: 0, count: 0 };
@@ -133,9 +178,9 @@ const Dashboard = () => {
     acc[date].count += 1;
     return acc;
   }, {});
-  const timeSeriesData = Object.values(dailySales).sort((a, b) =>
-    a.date.localeCompare(b.date)
-  );
+  const timeSeriesData = timeSeries && !summary
+    ? Object.values(dailySales)
+    : Object.values(dailySales).sort((a, b) => a.date.localeCompare(b.date));
 
   return (
     <div className="dashboard">
@@ -23,10 +23,50 @@ api.interceptors.request.use(
   }
 );
 
+// Renew an expired access token once and retry; concurrent 401s share one refresh
+let refreshRequest = null;
+
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    const refreshToken = localStorage.getItem('refreshToken');
+
+    if (error.response?.status !== 401 || !refreshToken || original._retried || original.url.startsWith('/auth/')) {
+      return Promise.reject(error);
+    }
+
+    // Another request already renewed the token this one was sent with
+    if (original.headers['Authorization'] !== `Bearer ${localStorage.getItem('token')}`) {
+      original._retried = true;
+      return api(original);
+    }
+
+    try {
+      refreshRequest = refreshRequest || axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken });
+      const { data } = await refreshRequest;
+      localStorage.setItem('token', data.token);
+      localStorage.setItem('refreshToken', data.refreshToken);
+    } catch (refreshError) {
+      localStorage.removeItem('token');
+      localStorage.removeItem('refreshToken');
+      localStorage.removeItem('user');
+      window.location.href = '/login';
+      return Promise.reject(refreshError);
+    } finally {
+      refreshRequest = null;
+    }
+
+    original._retried = true;
+    return api(original);
+  }
+);
+
 // Auth API
 export const authAPI = {
   login: (credentials) => api.post('/auth/signin', credentials),
   signup: (userData) => api.post('/auth/signup', userData),
+  signout: (refreshToken) => api.post('/auth/signout', { refreshToken }),
 };
 
 // Sales API
@@ -36,6 +76,9 @@ export const salesAPI = {
   createSale: (saleData) => api.post('/sales', saleData),
   updateSale: (id, saleData) => api.put(`/sales/${id}`, saleData),
   deleteSale: (id) => api.delete(`/sales/${id}`),
+  getTimeSeries: (params) => api.get('/sales/timeseries', { params }),
+  bulkDeleteSales: (selection) => api.post('/sales/bulk-delete', selection),
+  bulkUpdateSales: (request) => api.post('/sales/bulk-update', request),
   exportSales: (params) =>
     api.get('/sales/export', {
       params,
@@ -43,6 +86,16 @@ export const salesAPI = {
     }),
 };
 
+// Dashboard API
+export const dashboardAPI = {
+  getSummary: (window) => api.get('/dashboard/summary', { params: { window } }),
+};
+
+// Search API
+export const searchAPI = {
+  search: (q, type, limit) => api.get('/search', { params: { q, type, limit } }),
+};
+
 // Products API
 export const productsAPI = {
   getAllProducts: () => api.get('/products'),